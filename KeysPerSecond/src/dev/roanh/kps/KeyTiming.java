@@ -0,0 +1,134 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+/**
+ * Timing statistics for a single key: a rolling rate of presses over the
+ * last second and histograms of how long the key is held down and of the
+ * interval between consecutive presses. All statistics are updated without
+ * allocating. Presses and releases have to be reported from a single thread.
+ * @author Roan
+ * @see Key
+ */
+public class KeyTiming{
+	/**
+	 * Maximum number of presses per second tracked for the rolling rate.
+	 */
+	private static final int MAX_RATE = 64;
+	/**
+	 * Time stamps of the presses in the last second.
+	 */
+	private final PressTimeline presses = new PressTimeline(MAX_RATE);
+	/**
+	 * Histogram of the time between pressing and releasing the key.
+	 */
+	private final LatencyHistogram hold = new LatencyHistogram();
+	/**
+	 * Histogram of the time between consecutive presses of the key.
+	 */
+	private final LatencyHistogram interval = new LatencyHistogram();
+	/**
+	 * Nanosecond time stamp of the last press or -1 if the key was never pressed.
+	 */
+	private volatile long lastPress = -1L;
+	/**
+	 * Duration in microseconds of the last completed hold or -1 if there is none.
+	 */
+	private volatile long lastHold = -1L;
+	/**
+	 * Whether the key is currently held down.
+	 */
+	private volatile boolean held = false;
+	
+	/**
+	 * Records a press of the key.
+	 * @param time The nanosecond time stamp of the press.
+	 */
+	public void pressed(long time){
+		presses.record(time);
+		if(lastPress != -1L){
+			interval.record((time - lastPress) / 1000L);
+		}
+		lastPress = time;
+		held = true;
+	}
+	
+	/**
+	 * Records a release of the key.
+	 * @param time The nanosecond time stamp of the release.
+	 */
+	public void released(long time){
+		if(lastPress != -1L && held){
+			lastHold = (time - lastPress) / 1000L;
+			hold.record(lastHold);
+		}
+		held = false;
+	}
+	
+	/**
+	 * Gets the number of times the key was pressed in the second before the given time.
+	 * @param now The current nanosecond time stamp.
+	 * @return The number of presses in the last second.
+	 */
+	public int getRate(long now){
+		return presses.count(now);
+	}
+	
+	/**
+	 * Checks if the key is currently held down.
+	 * @return True if the key is held down.
+	 */
+	public boolean isHeld(){
+		return held;
+	}
+	
+	/**
+	 * Gets how long the key is currently held down or, if the key
+	 * is not held down, how long it was held down the last time.
+	 * @param now The current nanosecond time stamp.
+	 * @return The current hold duration in microseconds or -1
+	 *         if the key was never held down.
+	 */
+	public long getCurrentHold(long now){
+		if(held){
+			long start = lastPress;
+			return Math.max(0L, (now - start) / 1000L);
+		}else{
+			return lastHold;
+		}
+	}
+	
+	/**
+	 * Gets the histogram of the time in microseconds
+	 * between pressing and releasing the key.
+	 * @return The hold duration histogram.
+	 */
+	public LatencyHistogram getHoldTimes(){
+		return hold;
+	}
+	
+	/**
+	 * Gets the histogram of the time in microseconds
+	 * between consecutive presses of the key.
+	 * @return The press interval histogram.
+	 */
+	public LatencyHistogram getIntervals(){
+		return interval;
+	}
+}
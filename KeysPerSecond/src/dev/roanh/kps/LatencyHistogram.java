@@ -0,0 +1,180 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+/**
+ * Histogram of durations with logarithmically sized buckets. Every power
+ * of two range is split into {@value #SUB_BUCKETS} equally sized buckets,
+ * which bounds the relative error of reported values to about 6% while
+ * covering durations from a microsecond to several days in a fixed number
+ * of buckets. Recording a duration never allocates. Exactly one thread
+ * may record durations, other threads may read concurrently.
+ * @author Roan
+ */
+public class LatencyHistogram{
+	/**
+	 * Number of bits used to select a bucket within a power of two range.
+	 */
+	private static final int SUB_BITS = 4;
+	/**
+	 * Number of buckets per power of two range.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	/**
+	 * Largest duration in microseconds that is tracked exactly,
+	 * larger durations are counted as this duration.
+	 */
+	private static final long MAX_VALUE = (1L << 40) - 1;
+	/**
+	 * Total number of buckets in a histogram.
+	 */
+	public static final int BUCKETS = getIndex(MAX_VALUE) + 1;
+	/**
+	 * Number of recorded durations in each bucket.
+	 */
+	private final long[] counts = new long[BUCKETS];
+	/**
+	 * Total number of recorded durations.
+	 */
+	private volatile long total = 0;
+	
+	/**
+	 * Records a new duration.
+	 * @param micros The duration in microseconds.
+	 */
+	public void record(long micros){
+		counts[getIndex(Math.min(Math.max(micros, 0L), MAX_VALUE))]++;
+		total++;
+	}
+	
+	/**
+	 * Gets the total number of recorded durations.
+	 * @return The number of recorded durations.
+	 */
+	public long getCount(){
+		return total;
+	}
+	
+	/**
+	 * Gets the duration at the given percentile of all recorded durations.
+	 * @param percentile The percentile between 0 and 100.
+	 * @return The duration in microseconds at the given percentile,
+	 *         or -1 if no durations were recorded yet.
+	 */
+	public long getPercentile(double percentile){
+		long count = total;
+		if(count == 0){
+			return -1L;
+		}
+		
+		long target = Math.max(1L, (long)Math.ceil(count * Math.min(Math.max(percentile, 0.0D), 100.0D) / 100.0D));
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++){
+			seen += counts[i];
+			if(seen >= target){
+				return getMidpoint(i);
+			}
+		}
+		
+		//only reachable while a duration is being recorded concurrently
+		return getMidpoint(BUCKETS - 1);
+	}
+	
+	/**
+	 * Gets the mean of all recorded durations. Durations are taken
+	 * to be in the middle of their bucket, so the relative error
+	 * of the mean is bounded the same way as for percentiles.
+	 * @return The mean duration in microseconds, or -1
+	 *         if no durations were recorded yet.
+	 */
+	public long getMean(){
+		long count = 0;
+		double sum = 0.0D;
+		for(int i = 0; i < BUCKETS; i++){
+			long n = counts[i];
+			if(n != 0){
+				count += n;
+				sum += (double)n * getMidpoint(i);
+			}
+		}
+		
+		return count == 0 ? -1L : Math.round(sum / count);
+	}
+	
+	/**
+	 * Gets the number of durations recorded in the given bucket.
+	 * @param bucket The bucket index.
+	 * @return The number of durations in the bucket.
+	 * @see #BUCKETS
+	 */
+	public long getBucket(int bucket){
+		return counts[bucket];
+	}
+	
+	/**
+	 * Adds durations directly to the given bucket, this is
+	 * intended to be used to restore saved histograms.
+	 * @param bucket The bucket index.
+	 * @param count The number of durations to add.
+	 * @see #BUCKETS
+	 */
+	public void addBucket(int bucket, long count){
+		counts[bucket] += count;
+		total += count;
+	}
+	
+	/**
+	 * Removes all recorded durations.
+	 */
+	public void clear(){
+		for(int i = 0; i < BUCKETS; i++){
+			counts[i] = 0;
+		}
+		total = 0;
+	}
+	
+	/**
+	 * Computes the bucket index for the given duration.
+	 * @param micros The duration in microseconds, not negative.
+	 * @return The bucket index for the duration.
+	 */
+	private static int getIndex(long micros){
+		if(micros < SUB_BUCKETS){
+			return (int)micros;
+		}
+		
+		int exp = 63 - Long.numberOfLeadingZeros(micros);
+		return (exp - SUB_BITS + 1) * SUB_BUCKETS + (int)(micros >> (exp - SUB_BITS)) - SUB_BUCKETS;
+	}
+	
+	/**
+	 * Computes the duration in the middle of the given bucket.
+	 * @param bucket The bucket index.
+	 * @return The duration in the middle of the bucket in microseconds.
+	 */
+	private static long getMidpoint(int bucket){
+		if(bucket < SUB_BUCKETS){
+			return bucket;
+		}
+		
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lower = (long)(bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lower + ((1L << shift) >> 1);
+	}
+}
@@ -27,18 +27,14 @@ import java.awt.RenderingHints;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.imageio.ImageIO;
 import javax.swing.JFrame;
@@ -57,6 +53,8 @@ import dev.roanh.kps.config.group.GraphPanelSettings;
 import dev.roanh.kps.config.group.KeyPanelSettings;
 import dev.roanh.kps.config.group.SpecialPanelSettings;
 import dev.roanh.kps.event.EventManager;
+import dev.roanh.kps.event.listener.ButtonPressListener;
+import dev.roanh.kps.event.listener.MousePathListener;
 import dev.roanh.kps.event.source.NativeHookInputSource;
 import dev.roanh.kps.layout.GridPanel;
 import dev.roanh.kps.layout.Layout;
@@ -83,45 +81,22 @@ public class Main{
 	 */
 	public static final Version VERSION = Version.readVersion();
 	/**
-	 * The number of seconds the average has
-	 * been calculated for
+	 * The derived statistics.
 	 */
-	protected static long n = 0;
-	/**
-	 * The number of keys pressed in the
-	 * ongoing second
-	 */
-	protected static final AtomicInteger tmp = new AtomicInteger(0);
-	/**
-	 * The average keys per second
-	 */
-	public static double avg;
-	/**
-	 * The maximum keys per second value reached so far
-	 */
-	public static int max;
-	/**
-	 * Total number of hits
-	 */
-	public static int hits;
-	/**
-	 * The keys per second of the previous second
-	 * used for displaying the current keys per second value
-	 */
-	public static int prev;
+	public static final StatsEngine stats = new StatsEngine();
 	/**
 	 * Nanosecond time of the last tracked input.
 	 */
-	public static long lastHitTime = -1;
+	public static volatile long lastHitTime = -1;
 	/**
 	 * Last known cursor location.
 	 */
 	public static final Point mouseLoc = new Point();
 	/**
-	 * HashMap containing all the tracked keys and their virtual
+	 * Table containing all the tracked keys and their virtual
 	 * codes. Used to increment the count for the keys.
 	 */
-	public static final Map<Integer, Key> keys = new HashMap<Integer, Key>();
+	public static final KeyTable keys = new KeyTable();
 	/**
 	 * Main panel used for showing all the sub panels that
 	 * display all the information
@@ -130,11 +105,15 @@ public class Main{
 	/**
 	 * Graph panel.
 	 */
-	private static final List<GraphPanel> graphs = new ArrayList<GraphPanel>();
+	private static final List<GraphPanel> graphs = new CopyOnWriteArrayList<GraphPanel>();
 	/**
-	 * Linked list containing all the past key counts per time frame
+	 * Special data panels that are checked for changes every update.
 	 */
-	private static final LinkedList<Integer> timepoints = new LinkedList<Integer>();
+	private static final List<DataPanel> panels = new CopyOnWriteArrayList<DataPanel>();
+	/**
+	 * Time stamps of all key presses in the past second.
+	 */
+	protected static final PressTimeline timeline = new PressTimeline(8192);
 	/**
 	 * The program's main frame
 	 */
@@ -155,6 +134,15 @@ public class Main{
 	 * The loop timer task
 	 */
 	private static volatile ScheduledFuture<?> future = null;
+	/**
+	 * Whether the main loop is running at the reduced idle rate
+	 * because no input was received and everything has settled.
+	 */
+	private static volatile boolean idle = false;
+	/**
+	 * The slowest update rate in milliseconds of the main loop while idle.
+	 */
+	private static final int IDLE_UPDATE_RATE = 250;
 	/**
 	 * The layout for the main panel of the program
 	 */
@@ -244,6 +232,11 @@ public class Main{
 		eventManager.registerKeyReleaseListener(Main::releaseEventKey);
 		eventManager.registerKeyPressListener(Main::triggerCommandKeys);
 		eventManager.registerMouseMoveListener(Main::moveEventMouse);
+		eventManager.registerMousePathListener(Main::moveEventGraphs, true);
+		eventManager.registerButtonPressListener(Main::pressEventGraphs);
+		eventManager.registerKeyPressListener(code->wake());
+		eventManager.registerButtonPressListener(button->wake());
+		eventManager.registerMouseMoveListener((x, y)->wake());
 		
 		//enter the main loop
 		mainLoop();
@@ -261,8 +254,14 @@ public class Main{
 		Menu.createMenu();
 		
 		//reset stats and keys
+		Statistics.stopJournal();
 		resetData();
 		
+		//configure input handling
+		eventManager.setCoalesceMouseMoves(config.getInputSettings().isCoalesceMouseMovesEnabled());
+		eventManager.setAsyncDispatch(config.getInputSettings().isAsyncDispatchEnabled());
+		eventManager.setDebounceTime(config.getInputSettings().getDebounceTime());
+		
 		//apply a frame position if set
 		if(config.getFramePosition().hasPosition()){
 			frame.setLocation(config.getFramePosition().getLocation());
@@ -271,7 +270,7 @@ public class Main{
 		//load initial stats
 		if(config.getStatsSavingSettings().isLoadOnLaunchEnabled()){
 			try{
-				Statistics.loadStats(Paths.get(config.getStatsSavingSettings().getSaveFile()));
+				Statistics.loadStatsOnLaunch();
 			}catch(IOException | UnsupportedOperationException | IllegalArgumentException e){
 				e.printStackTrace();
 				Dialog.showMessageDialog("Failed to load statistics on launch.\nCause: " + e.getMessage());
@@ -293,45 +292,91 @@ public class Main{
 	/**
 	 * Main loop of the program
 	 * this loop updates the
-	 * average, current and 
-	 * maximum keys per second
+	 * average and current keys
+	 * per second, the maximum is
+	 * updated on each key press
 	 */
 	protected static final void mainLoop(){
+		schedule(false);
+	}
+	
+	/**
+	 * (Re)schedules the main loop task.
+	 * @param idle True to schedule the loop at the idle update rate.
+	 */
+	private static synchronized void schedule(boolean idle){
 		if(future != null){
 			future.cancel(false);
 		}
 		
-		future = timer.scheduleAtFixedRate(()->{
-			if(!suspended){
-				int currentTmp = tmp.getAndSet(0);
-				int totaltmp = currentTmp;
-				
-				for(int i : timepoints){
-					totaltmp += i;
-				}
-				
-				if(totaltmp > max){
-					max = totaltmp;
+		Main.idle = idle;
+		int rate = idle ? Math.max(IDLE_UPDATE_RATE, config.getUpdateRateMs()) : config.getUpdateRateMs();
+		future = timer.scheduleAtFixedRate(Main::tick, idle ? rate : 0, rate, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Brings the main loop back to the configured update rate
+	 * if it is currently running at the idle update rate.
+	 */
+	private static void wake(){
+		if(idle){
+			synchronized(Main.class){
+				if(idle){
+					schedule(false);
 				}
-				
-				prev = totaltmp;
-				if(totaltmp != 0){
-					avg = (avg * n + totaltmp) / (n + 1.0D);
-					n++;
-					hits += currentTmp;
+			}
+		}
+	}
+	
+	/**
+	 * Runs a single iteration of the main loop. When no input was
+	 * received and all graphs have settled the loop drops to the idle
+	 * update rate and only updates graphs and panels that depend on the time.
+	 */
+	private static void tick(){
+		if(!suspended){
+			if(idle){
+				if(!stats.hasPendingHits()){
+					for(GraphPanel graph : graphs){
+						if(graph.isTimeDependent() && graph.update()){
+							graph.repaint();
+						}
+					}
+					
+					for(DataPanel panel : panels){
+						if(panel.isTimeDependent()){
+							panel.repaint();
+						}
+					}
+				}else{
+					wake();
 				}
 				
-				for(GraphPanel graph : graphs){
-					graph.update();
+				return;
+			}
+			
+			int kps = timeline.count(System.nanoTime());
+			stats.update(kps);
+			
+			boolean settled = kps == 0;
+			for(GraphPanel graph : graphs){
+				if(graph.update()){
+					graph.repaint();
 				}
 				
-				content.repaint();
-				timepoints.addFirst(currentTmp);
-				if(timepoints.size() >= 1000 / config.getUpdateRateMs()){
-					timepoints.removeLast();
+				settled &= graph.isIdle();
+			}
+			
+			for(DataPanel panel : panels){
+				if(panel.isTimeDependent() || panel.hasChanged()){
+					panel.repaint();
 				}
 			}
-		}, 0, config.getUpdateRateMs(), TimeUnit.MILLISECONDS);
+			
+			if(settled){
+				schedule(true);
+			}
+		}
 	}
 	
 	/**
@@ -342,6 +387,33 @@ public class Main{
 	public static final void moveEventMouse(int x, int y){
 		mouseLoc.move(x, y);
 	}
+	
+	/**
+	 * Forwards every cursor movement to the graphs that track the cursor.
+	 * @param x The new cursor x coordinate.
+	 * @param y The new cursor y coordinate.
+	 * @param count The number of mouse move events that were combined.
+	 * @param length The distance in pixels the cursor travelled.
+	 */
+	private static final void moveEventGraphs(int x, int y, int count, double length){
+		for(GraphPanel graph : graphs){
+			if(graph instanceof MousePathListener){
+				((MousePathListener)graph).onMouseMove(x, y, count, length);
+			}
+		}
+	}
+	
+	/**
+	 * Forwards mouse button presses to the graphs that track them.
+	 * @param button The ID of the button that was pressed.
+	 */
+	private static final void pressEventGraphs(int button){
+		for(GraphPanel graph : graphs){
+			if(graph instanceof ButtonPressListener){
+				((ButtonPressListener)graph).onButtonPress(button);
+			}
+		}
+	}
 
 	/**
 	 * Handles a mouse button release event.
@@ -360,30 +432,14 @@ public class Main{
 		
 		if(config.isKeyModifierTrackingEnabled()){
 			if(code == CommandKeys.ALT){
-				for(Key k : keys.values()){
-					if(k.hasAlt()){
-						k.keyReleased();
-					}
-				}
+				keys.forEachWithModifier(CommandKeys.ALT_MASK, Key::keyReleased);
 			}else if(code == CommandKeys.CTRL){
-				for(Key k : keys.values()){
-					if(k.hasCtrl()){
-						k.keyReleased();
-					}
-				}
+				keys.forEachWithModifier(CommandKeys.CTRL_MASK, Key::keyReleased);
 			}else if(CommandKeys.isShift(code)){
-				for(Key k : keys.values()){
-					if(k.hasShift()){
-						k.keyReleased();
-					}
-				}
+				keys.forEachWithModifier(CommandKeys.SHIFT_MASK, Key::keyReleased);
 			}
 			
-			for(Entry<Integer, Key> k : keys.entrySet()){
-				if(CommandKeys.getBaseKeyCode(code) == CommandKeys.getBaseKeyCode(k.getKey())){
-					k.getValue().keyReleased();
-				}
-			}
+			keys.forEachWithBaseCode(CommandKeys.getBaseKeyCode(code), Key::keyReleased);
 		}else{
 			keys.getOrDefault(code, DUMMY_KEY).keyReleased();
 		}
@@ -398,8 +454,7 @@ public class Main{
 		Key key = keys.get(code);
 		
 		if(config.isTrackAllButtons() && key == null){
-			key = new Key();
-			keys.put(code, key);
+			key = keys.computeIfAbsent(code, c->new Key());
 		}
 		
 		if(!suspended && key != null){
@@ -416,8 +471,7 @@ public class Main{
 		Key key = keys.get(code);
 		
 		if(config.isTrackAllKeys() && key == null){
-			key = new Key(code);
-			keys.put(code, key);
+			key = keys.computeIfAbsent(code, Key::new);
 		}
 		
 		if(!suspended && key != null){
@@ -505,9 +559,7 @@ public class Main{
 	 * @param newRate The new update rate
 	 */
 	protected static final void changeUpdateRate(UpdateRate newRate){
-		n *= (double)config.getUpdateRateMs() / (double)newRate.getRate();
-		tmp.set(0);
-		timepoints.clear();
+		stats.rescale((double)config.getUpdateRateMs() / (double)newRate.getRate());
 		resetGraphs();
 		config.setUpdateRate(newRate);
 		mainLoop();
@@ -559,8 +611,11 @@ public class Main{
 			}
 			
 			//special panels
-			for(SpecialPanelSettings panel : config.getPanels()){
-				content.add(panel.createPanel());
+			panels.clear();
+			for(SpecialPanelSettings info : config.getPanels()){
+				DataPanel panel = info.createPanel();
+				content.add(panel);
+				panels.add(panel);
 			}
 			
 			//graph panels
@@ -570,6 +625,7 @@ public class Main{
 				content.add(graph);
 				graphs.add(graph);
 			}
+			wake();
 			
 			//frame configuration
 			JPanel all = new JPanel(new BorderLayout());
@@ -598,6 +654,13 @@ public class Main{
 		if(config.getStatsSavingSettings().isAutoSaveEnabled()){
 			Statistics.saveStatsTask();
 		}
+		
+		//Start stats journaling
+		if(config.getStatsSavingSettings().isJournalEnabled()){
+			Statistics.startJournal();
+		}else{
+			Statistics.stopJournal();
+		}
 	}
 	
 	/**
@@ -613,16 +676,29 @@ public class Main{
 	}
 	
 	/**
-	 * Clears the data for all active graphs.
+	 * Resets the data for all active graphs that
+	 * depends on the statistics or the update rate.
+	 * @see #clearGraphs()
 	 */
 	public static final void resetGraphs(){
 		graphs.forEach(GraphPanel::reset);
+		wake();
+	}
+	
+	/**
+	 * Clears all data for all active graphs, unlike {@link #resetGraphs()}
+	 * this also clears data that does not depend on the statistics.
+	 */
+	public static final void clearGraphs(){
+		graphs.forEach(GraphPanel::clear);
+		wake();
 	}
 
 	/**
 	 * Shuts down the program
 	 */
 	public static final void exit(){
+		Statistics.stopJournal();
 		Statistics.saveStatsOnExit();
 		System.exit(0);
 	}
@@ -639,12 +715,10 @@ public class Main{
 	 * Resets all derived statistics.
 	 */
 	protected static final void resetStats(){
-		System.out.println("Reset stats | max: " + max + " avg: " + avg + " tot: " + hits);
-		n = 0;
-		avg = 0;
-		max = 0;
-		hits = 0;
-		tmp.set(0);
+		StatsSnapshot last = stats.getSnapshot();
+		System.out.println("Reset stats | max: " + last.getMaximum() + " avg: " + last.getAverage() + " tot: " + last.getTotal());
+		stats.reset();
+		timeline.clear(System.nanoTime());
 		lastHitTime = -1;
 		resetGraphs();
 		frame.repaint();
@@ -655,10 +729,10 @@ public class Main{
 	 */
 	protected static final void resetTotals(){
 		System.out.print("Reset key counts |");
-		for(Entry<Integer, Key> key : keys.entrySet()){
-			System.out.print(" " + CommandKeys.formatExtendedCode(key.getKey()) + ":" + key.getValue().getCount());
-			key.getValue().setCount(0);
-		}
+		keys.forEach((code, key)->{
+			System.out.print(" " + CommandKeys.formatExtendedCode(code) + ":" + key.getCount());
+			key.setCount(0);
+		});
 		System.out.println();
 		
 		frame.repaint();
@@ -59,6 +59,7 @@ import dev.roanh.kps.config.group.KeyPanelSettings;
 import dev.roanh.kps.ui.dialog.AboutDialog;
 import dev.roanh.kps.ui.dialog.ColorDialog;
 import dev.roanh.kps.ui.dialog.CommandKeysDialog;
+import dev.roanh.kps.ui.dialog.DebounceDialog;
 import dev.roanh.kps.ui.dialog.DefaultConfigDialog;
 import dev.roanh.kps.ui.dialog.KeysDialog;
 import dev.roanh.kps.ui.dialog.LayoutDialog;
@@ -147,6 +148,10 @@ public class Menu{
 		JCheckBoxMenuItem overlay = new JCheckBoxMenuItem("Overlay mode");
 		JCheckBoxMenuItem modifiers = new JCheckBoxMenuItem("Key-modifier tracking");
 		JCheckBoxMenuItem windowed = new JCheckBoxMenuItem("Windowed mode");
+		JCheckBoxMenuItem keyTiming = new JCheckBoxMenuItem("Track key timing");
+		JCheckBoxMenuItem asyncInput = new JCheckBoxMenuItem("Asynchronous input");
+		JCheckBoxMenuItem coalesceMoves = new JCheckBoxMenuItem("Coalesce mouse moves");
+		JMenuItem debounce = new JMenuItem("Debounce");
 		JMenuItem save = new JMenuItem("Save config");
 		JMenuItem load = new JMenuItem("Load config");
 		JMenuItem defConf = new JMenuItem("Default config");
@@ -178,6 +183,10 @@ public class Menu{
 		components.add(commandkeys);
 		components.add(modifiers);
 		components.add(windowed);
+		components.add(keyTiming);
+		components.add(asyncInput);
+		components.add(coalesceMoves);
+		components.add(debounce);
 		configure.setUI(new MenuUI());
 		general.setUI(new MenuUI());
 		rate.setUI(new MenuUI());
@@ -210,18 +219,16 @@ public class Menu{
 			Main.resetStats();
 		});
 		sresetmax.addActionListener((e)->{
-			Main.max = 0;
+			Main.stats.resetMaximum();
 		});
 		sresetavg.addActionListener((e)->{
-			Main.n = 0;
-			Main.avg = 0;
-			Main.tmp.set(0);
+			Main.stats.resetAverage();
 		});
 		sresettot.addActionListener((e)->{
-			Main.hits = 0;
+			Main.stats.resetTotal();
 		});
 		sresetgraph.addActionListener((e)->{
-			Main.resetGraphs();
+			Main.clearGraphs();
 		});
 		commandkeys.addActionListener((e)->{
 			CommandKeysDialog.configureCommandKeys(Main.config.getCommands());
@@ -232,12 +239,12 @@ public class Menu{
 		tAllKeys.setSelected(Main.config.isTrackAllKeys());
 		tAllKeys.addActionListener((e)->{
 			Main.config.setTrackAllKeys(tAllKeys.isSelected());
-			Main.keys.entrySet().removeIf(entry->!CommandKeys.isMouseButton(entry.getKey()) && !Main.config.getKeys().contains(entry.getKey(), KeyPanelSettings::getKeyCode));
+			Main.keys.removeIf(code->!CommandKeys.isMouseButton(code) && !Main.config.getKeys().contains(code, KeyPanelSettings::getKeyCode));
 		});
 		tAllButtons.setSelected(Main.config.isTrackAllButtons());
 		tAllButtons.addActionListener((e)->{
 			Main.config.setTrackAllButtons(tAllButtons.isSelected());
-			Main.keys.entrySet().removeIf(entry->CommandKeys.isMouseButton(entry.getKey()) && !Main.config.getKeys().contains(entry.getKey(), KeyPanelSettings::getKeyCode));
+			Main.keys.removeIf(code->CommandKeys.isMouseButton(code) && !Main.config.getKeys().contains(code, KeyPanelSettings::getKeyCode));
 		});
 		overlay.setSelected(Main.config.isOverlayMode());
 		overlay.addActionListener((e)->{
@@ -259,6 +266,27 @@ public class Menu{
 			Main.config.setWindowedMode(windowed.isSelected());
 			Main.reconfigure();
 		});
+		keyTiming.setSelected(Main.config.isKeyTimingEnabled());
+		keyTiming.addActionListener(e->{
+			Main.config.setKeyTimingEnabled(keyTiming.isSelected());
+		});
+		asyncInput.setSelected(Main.config.getInputSettings().isAsyncDispatchEnabled());
+		asyncInput.addActionListener(e->{
+			Main.config.getInputSettings().setAsyncDispatchEnabled(asyncInput.isSelected());
+			Main.eventManager.setAsyncDispatch(asyncInput.isSelected());
+			coalesceMoves.setEnabled(asyncInput.isSelected());
+		});
+		coalesceMoves.setSelected(Main.config.getInputSettings().isCoalesceMouseMovesEnabled());
+		coalesceMoves.setEnabled(asyncInput.isSelected());
+		coalesceMoves.addActionListener(e->{
+			Main.config.getInputSettings().setCoalesceMouseMovesEnabled(coalesceMoves.isSelected());
+			Main.eventManager.setCoalesceMouseMoves(coalesceMoves.isSelected());
+		});
+		debounce.addActionListener(e->{
+			if(DebounceDialog.configureDebounce(Main.config.getInputSettings())){
+				Main.eventManager.setDebounceTime(Main.config.getInputSettings().getDebounceTime());
+			}
+		});
 		layout.addActionListener((e)->{
 			LayoutDialog.configureLayout(Main.config, true);
 		});
@@ -313,6 +341,10 @@ public class Menu{
 		general.add(tAllButtons);
 		general.add(modifiers);
 		general.add(windowed);
+		general.add(keyTiming);
+		general.add(asyncInput);
+		general.add(coalesceMoves);
+		general.add(debounce);
 
 		configure.add(general);
 		configure.add(configkeys);
@@ -0,0 +1,144 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free record of the time stamps of recent key presses, used to compute
+ * exact keys per second values over a sliding one second window. Exactly one
+ * thread may record presses at a time, any other thread may query the number
+ * of presses in the window ending at a given time.
+ * @author Roan
+ */
+public class PressTimeline{
+	/**
+	 * Length of the sliding window in nanoseconds.
+	 */
+	private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+	/**
+	 * Bit mask used to map sequence numbers to buffer indices.
+	 */
+	private final int mask;
+	/**
+	 * Nanosecond time stamps of recorded presses.
+	 */
+	private final long[] times;
+	/**
+	 * Sequence number of the next press to record.
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	/**
+	 * Sequence number of the oldest press in the window of the most
+	 * recently recorded press, only written by the recording thread.
+	 */
+	private final AtomicLong head = new AtomicLong();
+	/**
+	 * Sequence number of the oldest press in the window
+	 * of the most recent query, used as a search hint.
+	 */
+	private volatile long queryHead = 0;
+	/**
+	 * Time stamp at or before which all presses are ignored.
+	 */
+	private volatile long cutoff = Long.MIN_VALUE;
+	
+	/**
+	 * Constructs a new press timeline.
+	 * @param capacity The maximum number of presses in a single window,
+	 *        has to be a positive power of two. Presses in excess of
+	 *        this number are not recorded.
+	 * @throws IllegalArgumentException When the given capacity
+	 *         is not a positive power of two.
+	 */
+	public PressTimeline(int capacity) throws IllegalArgumentException{
+		if(capacity <= 0 || Integer.bitCount(capacity) != 1){
+			throw new IllegalArgumentException("Capacity has to be a positive power of two.");
+		}
+		
+		mask = capacity - 1;
+		times = new long[capacity];
+	}
+	
+	/**
+	 * Records a new key press. Press time stamps are expected to be non-decreasing.
+	 * @param time The nanosecond time stamp of the press.
+	 * @return The number of presses in the one second window ending at the given press.
+	 * @see System#nanoTime()
+	 */
+	public int record(long time){
+		long threshold = Math.max(time - WINDOW, cutoff);
+		long start = head.get();
+		long end = tail.get();
+		while(start < end && times[(int)(start & mask)] <= threshold){
+			start++;
+		}
+		head.set(start);
+		
+		if(end - start > mask){
+			//window full, the press cannot be stored
+			return (int)(end - start);
+		}
+		
+		times[(int)(end & mask)] = time;
+		tail.set(end + 1);
+		return (int)(end + 1 - start);
+	}
+	
+	/**
+	 * Counts the number of recorded presses in the one second
+	 * window ending at the given time.
+	 * @param now The nanosecond time stamp the window ends at.
+	 * @return The number of presses in the window.
+	 * @see System#nanoTime()
+	 */
+	public int count(long now){
+		long threshold = Math.max(now - WINDOW, cutoff);
+		long start = Math.max(queryHead, head.get());
+		long end = tail.get();
+		
+		while(start < end){
+			long time = times[(int)(start & mask)];
+			if(tail.get() - start > times.length){
+				//the slot was reused, resume from the window of the last press
+				start = head.get();
+				end = tail.get();
+				continue;
+			}
+			
+			if(time > threshold){
+				break;
+			}
+			
+			start++;
+		}
+		
+		queryHead = start;
+		return (int)(end - start);
+	}
+	
+	/**
+	 * Discards all presses recorded up to the given time.
+	 * @param time The nanosecond time stamp to discard presses up to.
+	 */
+	public void clear(long time){
+		cutoff = time;
+	}
+}
@@ -23,6 +23,10 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Toolkit;
+import java.awt.font.FontRenderContext;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dev.roanh.kps.panels.BasePanel;
 
@@ -427,6 +431,15 @@ public enum RenderingMode{
 	 * of the panel (inside the image).
 	 */
 	public static final int insideOffset = 3;
+	/**
+	 * Maximum number of entries in the font cache.
+	 */
+	private static final int FONT_CACHE_SIZE = 512;
+	/**
+	 * Cache of resolved fonts shared by all panels, this
+	 * allows panels with the same dimensions to share fonts.
+	 */
+	private static final Map<FontKey, Font> fontCache = new ConcurrentHashMap<FontKey, Font>();
 	
 	/**
 	 * Constructs a new RenderingMode
@@ -591,24 +604,50 @@ public enum RenderingMode{
 	 * @return The new font to use to draw the text for the panel
 	 */
 	private static final Font resolveFont(String text, Graphics2D g, int maxWidth, int maxHeight, int properties, Font currentFont){
-		FontMetrics fm;
-		if(currentFont != null){
-			fm = g.getFontMetrics(currentFont);
-			if(getHeight(g, currentFont) <= maxHeight && stringWidth(text, fm) <= maxWidth){
-				return currentFont;
+		if(currentFont != null && fits(text, g, currentFont, maxWidth, maxHeight)){
+			return currentFont;
+		}
+		
+		FontKey key = new FontKey(properties, maxWidth, maxHeight, text.length(), g.getFontRenderContext());
+		Font font = fontCache.get(key);
+		if(font != null && fits(text, g, font, maxWidth, maxHeight)){
+			return font;
+		}
+
+		//binary search for the largest size that fits, size 0 is used if nothing fits
+		int low = 0;
+		int high = (int)(maxHeight * (Toolkit.getDefaultToolkit().getScreenResolution() / 72.0));
+		while(low < high){
+			int mid = (low + high + 1) / 2;
+			if(fits(text, g, new Font("Dialog", properties, mid), maxWidth, maxHeight)){
+				low = mid;
+			}else{
+				high = mid - 1;
 			}
 		}
 
-		int size = (int)(maxHeight * (Toolkit.getDefaultToolkit().getScreenResolution() / 72.0));
-		Font font;
-		do{
-			font = new Font("Dialog", properties, size);
-			fm = g.getFontMetrics(font);
-			size--;
-		}while(!(getHeight(g, font) <= maxHeight && stringWidth(text, fm) <= maxWidth) && size >= 0);
-
+		font = new Font("Dialog", properties, low);
+		if(fontCache.size() >= FONT_CACHE_SIZE){
+			fontCache.clear();
+		}
+		fontCache.put(key, font);
+		
 		return font;
 	}
+	
+	/**
+	 * Checks if the given text drawn with the given
+	 * font fits within the given dimensions.
+	 * @param text The text that is going to be drawn.
+	 * @param g The graphics that are going to be used to draw the text.
+	 * @param font The font to check.
+	 * @param maxWidth The maximum width the drawn text may be.
+	 * @param maxHeight The maximum height the drawn text may be.
+	 * @return True if the text fits within the given dimensions.
+	 */
+	private static final boolean fits(String text, Graphics2D g, Font font, int maxWidth, int maxHeight){
+		return getHeight(g, font) <= maxHeight && stringWidth(text, g.getFontMetrics(font)) <= maxWidth;
+	}
 
 	/**
 	 * Gets the height of drawn text in pixels
@@ -637,6 +676,65 @@ public enum RenderingMode{
 		return name;
 	}
 
+	/**
+	 * Key for cached fonts, fonts are shared between texts
+	 * of the same length drawn in the same area.
+	 * @author Roan
+	 */
+	private static final class FontKey{
+		/**
+		 * The font style flags.
+		 */
+		private final int properties;
+		/**
+		 * The maximum width of the drawn text.
+		 */
+		private final int maxWidth;
+		/**
+		 * The maximum height of the drawn text.
+		 */
+		private final int maxHeight;
+		/**
+		 * The length of the drawn text.
+		 */
+		private final int length;
+		/**
+		 * The font render context of the graphics used to draw the text.
+		 */
+		private final FontRenderContext frc;
+		
+		/**
+		 * Constructs a new font key.
+		 * @param properties The font style flags.
+		 * @param maxWidth The maximum width of the drawn text.
+		 * @param maxHeight The maximum height of the drawn text.
+		 * @param length The length of the drawn text.
+		 * @param frc The font render context used to draw the text.
+		 */
+		private FontKey(int properties, int maxWidth, int maxHeight, int length, FontRenderContext frc){
+			this.properties = properties;
+			this.maxWidth = maxWidth;
+			this.maxHeight = maxHeight;
+			this.length = length;
+			this.frc = frc;
+		}
+		
+		@Override
+		public boolean equals(Object obj){
+			if(obj instanceof FontKey){
+				FontKey other = (FontKey)obj;
+				return properties == other.properties && maxWidth == other.maxWidth && maxHeight == other.maxHeight && length == other.length && frc.equals(other.frc);
+			}else{
+				return false;
+			}
+		}
+		
+		@Override
+		public int hashCode(){
+			return Objects.hash(properties, maxWidth, maxHeight, length, frc);
+		}
+	}
+
 	/**
 	 * Simple cache that caches rendering information
 	 * so that it does not have to be recomputed for
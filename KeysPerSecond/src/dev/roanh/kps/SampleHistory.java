@@ -0,0 +1,177 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+/**
+ * Fixed capacity history of integer samples that besides the raw samples
+ * also maintains a number of downsampled levels. Level {@code L} stores the
+ * minimum and maximum of each aligned block of {@code 2^L} consecutive samples,
+ * which allows a long history to be drawn at a bounded number of points while
+ * still preserving peaks. All levels are updated incrementally as samples are
+ * added and samples are kept in primitive arrays so adding a sample never allocates.
+ * <p>
+ * Exactly one thread may add samples, other threads may read the history
+ * concurrently but can observe a sample that is being overwritten.
+ * @author Roan
+ */
+public class SampleHistory{
+	/**
+	 * Downsampled levels stop once a level would hold fewer blocks than this.
+	 */
+	private static final int MIN_LEVEL_BLOCKS = 16;
+	/**
+	 * Circular buffer with the raw samples.
+	 */
+	private final int[] values;
+	/**
+	 * Block minimums for each downsampled level, level 0 is unused.
+	 */
+	private final int[][] mins;
+	/**
+	 * Block maximums for each downsampled level, level 0 is unused.
+	 */
+	private final int[][] maxs;
+	/**
+	 * Total number of samples ever added, this is also
+	 * the sequence number of the next sample to add.
+	 */
+	private volatile long count = 0;
+	
+	/**
+	 * Constructs a new sample history.
+	 * @param capacity The maximum number of samples to retain, may be 0.
+	 */
+	public SampleHistory(int capacity){
+		values = new int[Math.max(0, capacity)];
+		
+		int levels = 1;
+		while((values.length >> levels) >= MIN_LEVEL_BLOCKS){
+			levels++;
+		}
+		
+		mins = new int[levels][];
+		maxs = new int[levels][];
+		for(int level = 1; level < levels; level++){
+			mins[level] = new int[(values.length >> level) + 2];
+			maxs[level] = new int[(values.length >> level) + 2];
+		}
+	}
+	
+	/**
+	 * Adds a new sample, evicting the oldest sample if the history is full.
+	 * @param value The sample to add.
+	 */
+	public void add(int value){
+		if(values.length == 0){
+			return;
+		}
+		
+		long seq = count;
+		values[(int)(seq % values.length)] = value;
+		
+		for(int level = 1; level < mins.length; level++){
+			int idx = (int)((seq >> level) % mins[level].length);
+			if((seq & ((1L << level) - 1)) == 0){
+				mins[level][idx] = value;
+				maxs[level][idx] = value;
+			}else{
+				mins[level][idx] = Math.min(mins[level][idx], value);
+				maxs[level][idx] = Math.max(maxs[level][idx], value);
+			}
+		}
+		
+		count = seq + 1;
+	}
+	
+	/**
+	 * Gets a sample from this history by its age.
+	 * @param age The age of the sample, 0 is the most recent sample.
+	 * @return The sample with the given age.
+	 * @see #getSize()
+	 */
+	public int get(int age){
+		return values[(int)((count - 1 - age) % values.length)];
+	}
+	
+	/**
+	 * Gets the number of samples currently in this history.
+	 * @return The number of samples in this history.
+	 */
+	public int getSize(){
+		return (int)Math.min(count, values.length);
+	}
+	
+	/**
+	 * Gets the maximum number of samples retained by this history.
+	 * @return The capacity of this history.
+	 */
+	public int getCapacity(){
+		return values.length;
+	}
+	
+	/**
+	 * Gets the total number of samples ever added to this history. The sample
+	 * with sequence number {@code getCount() - 1} is the most recent sample.
+	 * @return The total number of samples added.
+	 */
+	public long getCount(){
+		return count;
+	}
+	
+	/**
+	 * Gets the lowest level at which the samples in this
+	 * history span at most the given number of blocks.
+	 * @param maxBlocks The maximum number of blocks.
+	 * @return The selected level, 0 means the raw samples already
+	 *         fit, otherwise the highest level if none fit.
+	 */
+	public int selectLevel(int maxBlocks){
+		int size = getSize();
+		int level = 0;
+		while(level + 1 < mins.length && (size >> level) > maxBlocks){
+			level++;
+		}
+		
+		return level;
+	}
+	
+	/**
+	 * Gets the minimum of a block at a downsampled level. Blocks at level
+	 * {@code L} are numbered such that block {@code b} covers the samples with
+	 * sequence numbers {@code b * 2^L} up to {@code (b + 1) * 2^L} exclusive.
+	 * Only blocks with all their samples still in this history are valid.
+	 * @param level The downsampled level, at least 1.
+	 * @param block The block number.
+	 * @return The minimum sample in the block.
+	 */
+	public int getMinimum(int level, long block){
+		return mins[level][(int)(block % mins[level].length)];
+	}
+	
+	/**
+	 * Gets the maximum of a block at a downsampled level.
+	 * @param level The downsampled level, at least 1.
+	 * @param block The block number.
+	 * @return The maximum sample in the block.
+	 * @see #getMinimum(int, long)
+	 */
+	public int getMaximum(int level, long block){
+		return maxs[level][(int)(block % maxs[level].length)];
+	}
+}
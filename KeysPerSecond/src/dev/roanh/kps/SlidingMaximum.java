@@ -0,0 +1,125 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+/**
+ * Tracks the maximum of the most recent values in a stream of values
+ * using a monotonic deque. Adding a value takes amortised constant
+ * time and the maximum is available in constant time. Values are
+ * kept in primitive arrays so adding a value never allocates.
+ * Instances are not thread safe.
+ * @author Roan
+ */
+public class SlidingMaximum{
+	/**
+	 * Number of most recent values the maximum is computed over.
+	 */
+	private final int window;
+	/**
+	 * Sequence number of each value in the deque.
+	 */
+	private final long[] seqs;
+	/**
+	 * The values in the deque, strictly decreasing from front to back.
+	 */
+	private final int[] vals;
+	/**
+	 * Index of the front of the deque, this is the current maximum.
+	 */
+	private int first = 0;
+	/**
+	 * Number of values currently in the deque.
+	 */
+	private int count = 0;
+	/**
+	 * Sequence number of the next value to add.
+	 */
+	private long next = 0;
+	
+	/**
+	 * Constructs a new sliding maximum.
+	 * @param window The number of most recent values to
+	 *        compute the maximum over, has to be positive.
+	 * @throws IllegalArgumentException When the given window is not positive.
+	 */
+	public SlidingMaximum(int window) throws IllegalArgumentException{
+		if(window <= 0){
+			throw new IllegalArgumentException("Window has to be positive.");
+		}
+		
+		this.window = window;
+		seqs = new long[window];
+		vals = new int[window];
+	}
+	
+	/**
+	 * Adds a new value, the oldest value leaves the window
+	 * if the window was already full.
+	 * @param value The value to add.
+	 */
+	public void add(int value){
+		if(count > 0 && seqs[first] <= next - window){
+			first = first + 1 == window ? 0 : first + 1;
+			count--;
+		}
+		
+		while(count > 0 && vals[index(count - 1)] <= value){
+			count--;
+		}
+		
+		int idx = index(count);
+		seqs[idx] = next;
+		vals[idx] = value;
+		count++;
+		next++;
+	}
+	
+	/**
+	 * Gets the maximum of the values currently in the window.
+	 * @return The maximum value in the window or 0 if no values were added yet.
+	 */
+	public int getMaximum(){
+		return count == 0 ? 0 : vals[first];
+	}
+	
+	/**
+	 * Gets the number of most recent values the maximum is computed over.
+	 * @return The window size.
+	 */
+	public int getWindow(){
+		return window;
+	}
+	
+	/**
+	 * Removes all values from the window.
+	 */
+	public void clear(){
+		count = 0;
+	}
+	
+	/**
+	 * Maps a position in the deque to an index in the backing arrays.
+	 * @param offset The position relative to the front of the deque.
+	 * @return The index in the backing arrays.
+	 */
+	private int index(int offset){
+		int idx = first + offset;
+		return idx >= window ? idx - window : idx;
+	}
+}
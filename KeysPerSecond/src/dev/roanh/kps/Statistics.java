@@ -18,25 +18,37 @@
  */
 package dev.roanh.kps;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.nio.charset.MalformedInputException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map.Entry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+
+import javax.swing.SwingUtilities;
 
 import dev.roanh.kps.config.group.StatsSavingSettings;
 import dev.roanh.util.Dialog;
@@ -53,10 +65,6 @@ public class Statistics{
 	 * Extension filter for KeysPerSecond statistics files.
 	 */
 	public static final FileExtension KPS_STATS_EXT = FileSelector.registerFileExtension("KeysPerSecond statistics", "kpsstats");
-	/**
-	 * Regex used to parse key lines in the statistics save file.
-	 */
-	private static final Pattern STATS_LINE_REGEX = Pattern.compile("^  - \\[keycode=(-?\\d+),count=(\\d+),alt=(true|false),ctrl=(true|false),shift=(true|false),name=\\\"(.*)\\\"]$");
 	/**
 	 * Statistics save future
 	 */
@@ -65,6 +73,22 @@ public class Statistics{
 	 * Periodic statistics save scheduler
 	 */
 	private static final ScheduledExecutorService statsScheduler = Executors.newSingleThreadScheduledExecutor();
+	/**
+	 * Statistics journal commit future
+	 */
+	private static volatile ScheduledFuture<?> journalFuture = null;
+	/**
+	 * The active statistics journal or null if not journaling
+	 */
+	private static volatile StatsJournal journal = null;
+	/**
+	 * Executor that performs all statistics file writes
+	 */
+	private static final ExecutorService saveExecutor = Executors.newSingleThreadExecutor();
+	/**
+	 * Save requests that were submitted but did not start writing yet, by destination
+	 */
+	private static final Map<Path, CompletableFuture<Void>> pendingSaves = new HashMap<Path, CompletableFuture<Void>>();
 
 	/**
 	 * Saves the statistics so to the configured
@@ -73,10 +97,11 @@ public class Statistics{
 	public static void saveStatsOnExit(){
 		if(Main.config.getStatsSavingSettings().isSaveOnExitEnabled()){
 			try{
-				saveStats(Paths.get(Main.config.getStatsSavingSettings().getSaveFile()));
-			}catch(IOException e){
-				e.printStackTrace();
-				if(Dialog.showConfirmDialog("Failed to save statistics on exit.\nCause: " + e.getMessage() + "\nAttempt to save again?")){
+				saveStatsAsync(Paths.get(Main.config.getStatsSavingSettings().getSaveFile())).get();
+			}catch(ExecutionException | InterruptedException e){
+				Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+				cause.printStackTrace();
+				if(Dialog.showConfirmDialog("Failed to save statistics on exit.\nCause: " + cause.getMessage() + "\nAttempt to save again?")){
 					saveStatsOnExit();
 				}
 			}
@@ -105,7 +130,11 @@ public class Statistics{
 				Path target = Paths.get(config.getAutoSaveDestination());
 				Files.createDirectories(target);
 				target = target.resolve(DateTimeFormatter.ofPattern(config.getAutoSaveFormat()).withLocale(Locale.getDefault()).withZone(ZoneId.systemDefault()).format(Instant.now(Clock.systemDefaultZone())));
-				saveStats(target);
+				saveStatsAsync(target).whenComplete((result, e)->{
+					if(e != null){
+						e.printStackTrace();
+					}
+				});
 			}catch(Throwable e){
 				//Main priority here is to not interrupt whatever the user is doing
 				e.printStackTrace();
@@ -113,6 +142,98 @@ public class Statistics{
 		}, config.getAutoSaveInterval(), config.getAutoSaveInterval(), TimeUnit.MILLISECONDS);
 	}
 	
+	/**
+	 * Starts continuously writing the statistics to the journal next to the
+	 * configured save file, replacing any running journal. Changes are committed
+	 * to the journal at the configured journal interval.
+	 * @see StatsJournal
+	 */
+	public static synchronized void startJournal(){
+		stopJournal();
+		
+		StatsSavingSettings config = Main.config.getStatsSavingSettings();
+		StatsJournal target = new StatsJournal(getJournalFile(config));
+		journal = target;
+		journalFuture = statsScheduler.scheduleWithFixedDelay(()->{
+			try{
+				target.commit();
+			}catch(Throwable e){
+				//Main priority here is to not interrupt whatever the user is doing
+				e.printStackTrace();
+			}
+		}, 0, config.getJournalInterval(), TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Stops the running statistics journal if any after
+	 * committing all remaining changes to it.
+	 */
+	public static synchronized void stopJournal(){
+		if(journalFuture != null){
+			journalFuture.cancel(false);
+			journalFuture = null;
+		}
+		
+		if(journal != null){
+			try{
+				journal.close();
+			}catch(IOException e){
+				e.printStackTrace();
+			}
+			journal = null;
+		}
+	}
+	
+	/**
+	 * Gets the statistics journal file for the given settings.
+	 * @param config The statistics saving settings.
+	 * @return The journal file next to the configured save file.
+	 */
+	private static Path getJournalFile(StatsSavingSettings config){
+		return Paths.get(config.getSaveFile() + ".journal");
+	}
+	
+	/**
+	 * Loads the statistics from the configured save file. If journaling
+	 * is enabled and the journal is at least as recent as the save file
+	 * then the journal is replayed on top of the save file. The journal
+	 * does not hold key timing statistics, so these always come from the
+	 * save file.
+	 * @throws IOException When an IOException occurs.
+	 * @throws IllegalArgumentException When there is a format error reading the save file.
+	 * @throws UnsupportedOperationException When the save file is in an unsupported legacy format.
+	 */
+	public static void loadStatsOnLaunch() throws IOException, IllegalArgumentException, UnsupportedOperationException{
+		StatsSavingSettings config = Main.config.getStatsSavingSettings();
+		Path file = Paths.get(config.getSaveFile());
+		if(!config.isJournalEnabled()){
+			loadStats(file);
+			return;
+		}
+		
+		Path log = getJournalFile(config);
+		boolean saved = Files.exists(file);
+		if(!Files.exists(log) || (saved && Files.getLastModifiedTime(log).compareTo(Files.getLastModifiedTime(file)) < 0)){
+			if(saved){
+				loadStats(file);
+			}
+			
+			return;
+		}
+		
+		if(saved){
+			try{
+				readStats(file);
+			}catch(IOException | IllegalArgumentException | UnsupportedOperationException e){
+				//the journal still holds all other statistics
+				e.printStackTrace();
+			}
+		}
+		
+		StatsJournal.replay(log);
+		Main.frame.repaint();
+	}
+	
 	/**
 	 * Saves the statistics logged so far
 	 * and asks the user to provide a location
@@ -121,51 +242,123 @@ public class Statistics{
 	protected static void saveStats(){
 		Path file = Dialog.showFileSaveDialog(KPS_STATS_EXT, "stats");
 		if(file != null){
-			try{
-				saveStats(file);
-				Dialog.showMessageDialog("Statistics succesfully saved");
-			}catch(IOException e){
-				e.printStackTrace();
-				Dialog.showErrorDialog("Failed to save the statistics!\nCause: " + e.getMessage());
+			saveStatsAsync(file).whenComplete((result, e)->SwingUtilities.invokeLater(()->{
+				if(e == null){
+					Dialog.showMessageDialog("Statistics succesfully saved");
+				}else{
+					e.printStackTrace();
+					Dialog.showErrorDialog("Failed to save the statistics!\nCause: " + e.getMessage());
+				}
+			}));
+		}
+	}
+	
+	/**
+	 * Requests the statistics logged so far to be saved to the given file. The
+	 * file is written on a dedicated I/O thread. If a save to the same file is
+	 * still waiting to be written the two requests are coalesced, since the
+	 * statistics are only captured once the write starts.
+	 * @param dest The file to save to.
+	 * @return A future that completes once the file was written.
+	 */
+	public static CompletableFuture<Void> saveStatsAsync(Path dest){
+		synchronized(pendingSaves){
+			CompletableFuture<Void> pending = pendingSaves.get(dest);
+			if(pending != null){
+				return pending;
 			}
+			
+			CompletableFuture<Void> future = new CompletableFuture<Void>();
+			pendingSaves.put(dest, future);
+			saveExecutor.execute(()->{
+				synchronized(pendingSaves){
+					//requests from here on need a newer snapshot
+					pendingSaves.remove(dest);
+				}
+				
+				try{
+					saveStats(dest);
+					future.complete(null);
+				}catch(Throwable e){
+					future.completeExceptionally(e);
+				}
+			});
+			
+			return future;
 		}
 	}
 
 	/**
-	 * Saves the statistics logged so far
+	 * Saves the statistics logged so far. The statistics are first written
+	 * to a temporary file that is forced to disk and then atomically moved
+	 * over the destination, so the destination is never left half written.
 	 * @param dest The file to save to
 	 * @throws IOException When an IOException occurs.
 	 */
 	private static void saveStats(Path dest) throws IOException{
-		Path parent = dest.getParent();
+		Path parent = dest.toAbsolutePath().getParent();
 		if(parent != null){
 			Files.createDirectories(parent);
 		}
 		
-		try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(dest))){
+		Path tmp = dest.resolveSibling(dest.getFileName() + ".tmp");
+		try{
+			writeStats(tmp);
+			replaceFile(tmp, dest);
+		}finally{
+			Files.deleteIfExists(tmp);
+		}
+	}
+	
+	/**
+	 * Replaces the given destination file with the given source file. The
+	 * file is moved atomically if the file system supports this, otherwise
+	 * it is moved with a regular replacing move.
+	 * @param source The file to move.
+	 * @param dest The file to replace.
+	 * @throws IOException When an IOException occurs.
+	 */
+	protected static void replaceFile(Path source, Path dest) throws IOException{
+		try{
+			Files.move(source, dest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}catch(AtomicMoveNotSupportedException e){
+			Files.move(source, dest, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Writes the statistics logged so far and forces them to disk.
+	 * @param dest The file to write to.
+	 * @throws IOException When an IOException occurs.
+	 */
+	protected static void writeStats(Path dest) throws IOException{
+		StatsSnapshot stats = Main.stats.capture();
+		try(
+			FileChannel channel = FileChannel.open(dest, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8)))
+		){
 			out.print("version: ");
 			out.println(Main.VERSION);
 			out.println();
 			out.println("# General");
 			out.print("total: ");
-			out.println(Main.hits);
+			out.println(stats.getTotal());
 			out.print("average: ");
-			out.println(Main.avg);
+			out.println(stats.getAverage());
 			out.print("maximum: ");
-			out.println(Main.max);
+			out.println(stats.getMaximum());
 			out.print("seconds: ");
-			out.println(Main.n);
+			out.println(stats.getSeconds());
 			out.print("previous: ");
-			out.println(Main.prev);
+			out.println(stats.getPrevious());
 			out.print("current: ");
-			out.println(Main.tmp.get());
+			out.println(stats.getPending());
 			out.println();
 			out.println("# Keys");
 			out.println("keys:");
-			for(Entry<Integer, Key> entry : Main.keys.entrySet()){
-				Key key = entry.getValue();
+			Main.keys.forEach((code, key)->{
 				out.print("  - [keycode=");
-				out.print(entry.getKey());
+				out.print(code);
 				out.print(",count=");
 				out.print(key.getCount());
 				out.print(",alt=");
@@ -175,6 +368,59 @@ public class Statistics{
 				out.print(",shift=");
 				out.print(key.hasShift());
 				out.println(",name=\"-\"]");//no longer required since v8.8
+			});
+			
+			boolean[] header = new boolean[1];
+			Main.keys.forEach((code, key)->{
+				KeyTiming timing = key.getTiming();
+				if(timing == null){
+					return;
+				}
+				
+				if(!header[0]){
+					header[0] = true;
+					out.println();
+					out.println("# Key timing");
+					out.println("timing:");
+				}
+				
+				out.print("  - [keycode=");
+				out.print(code);
+				out.print(",hold=");
+				writeHistogram(out, timing.getHoldTimes());
+				out.print(",interval=");
+				writeHistogram(out, timing.getIntervals());
+				out.println("]");
+			});
+			
+			out.flush();
+			if(out.checkError()){
+				throw new IOException("Failed to write the statistics to " + dest);
+			}
+			
+			channel.force(true);
+		}
+	}
+	
+	/**
+	 * Writes the non empty buckets of the given histogram as a
+	 * semicolon separated list of bucket index and count pairs.
+	 * @param out The writer to write to.
+	 * @param histogram The histogram to write.
+	 */
+	private static void writeHistogram(PrintWriter out, LatencyHistogram histogram){
+		boolean first = true;
+		for(int i = 0; i < LatencyHistogram.BUCKETS; i++){
+			long count = histogram.getBucket(i);
+			if(count != 0){
+				if(!first){
+					out.print(';');
+				}
+				
+				first = false;
+				out.print(i);
+				out.print(':');
+				out.print(count);
 			}
 		}
 	}
@@ -198,6 +444,41 @@ public class Statistics{
 		}
 	}
 
+	/**
+	 * Loads the key lines that follow the keys header of a statistics
+	 * file. Counts of keys that are already tracked are updated, all
+	 * other keys are added to the key table in a single update.
+	 * @param in The reader positioned at the keys header.
+	 * @throws NumberFormatException When a key code or count is out of range.
+	 */
+	private static void loadKeys(StatsReader in) throws NumberFormatException{
+		int[] codes = new int[16];
+		Key[] added = new Key[16];
+		int size = 0;
+		
+		while(in.nextLine()){
+			if(!in.matchKey()){
+				in.pushBack();
+				break;
+			}
+			
+			Key key = Main.keys.get(in.getCode());
+			if(key == null){
+				if(size == codes.length){
+					codes = Arrays.copyOf(codes, size * 2);
+					added = Arrays.copyOf(added, size * 2);
+				}
+				
+				codes[size] = in.getCode();
+				added[size++] = new Key(in.getCount(), in.hasAlt(), in.hasCtrl(), in.hasShift());
+			}else{
+				key.setCount(in.getCount());
+			}
+		}
+		
+		Main.keys.putAll(codes, added, size);
+	}
+	
 	/**
 	 * Loads the statistics from a file
 	 * @param file The file to load from.
@@ -206,61 +487,72 @@ public class Statistics{
 	 * @throws UnsupportedOperationException When the file is in an unsupported legacy format.
 	 */
 	public static void loadStats(Path file) throws IOException, IllegalArgumentException, UnsupportedOperationException{
-		try(BufferedReader in = Files.newBufferedReader(file)){
-			String line;
-			while((line = in.readLine()) != null){
-				if(line.startsWith("#") || line.isEmpty()){
+		readStats(file);
+		Main.frame.repaint();
+	}
+	
+	/**
+	 * Reads the statistics from a file into the current statistics and key table.
+	 * @param file The file to read from.
+	 * @throws IOException When an Exception occurs.
+	 * @throws IllegalArgumentException When there is a format error reading the file.
+	 * @throws UnsupportedOperationException When the file is in an unsupported legacy format.
+	 */
+	protected static void readStats(Path file) throws IOException, IllegalArgumentException, UnsupportedOperationException{
+		StatsSnapshot stats = Main.stats.capture();
+		long total = stats.getTotal();
+		double avg = stats.getAverage();
+		int max = stats.getMaximum();
+		long seconds = stats.getSeconds();
+		int prev = stats.getPrevious();
+		long current = stats.getPending();
+		
+		StatsReader in = new StatsReader(Files.readAllBytes(file));
+		if(in.isLegacy()){
+			throw new UnsupportedOperationException("Loading legacy statistics files is unsupported in this version.");
+		}
+		
+		try{
+			while(in.nextLine()){
+				if(in.isBlank()){
 					continue;
 				}
 				
+				String line = in.getLine();
 				String[] args = line.split(":", 2);
 				String value = args.length > 1 ? args[1].trim() : null;
 				switch(args[0]){
 				case "version":
 					break;
 				case "total":
-					Main.hits = Integer.parseInt(value);
+					total = Long.parseLong(value);
 					break;
 				case "average":
-					Main.avg = Double.parseDouble(value);
+					avg = Double.parseDouble(value);
 					break;
 				case "maximum":
-					Main.max = Integer.parseInt(value);
+					max = Integer.parseInt(value);
 					break;
 				case "seconds":
-					Main.n = Long.parseLong(value);
+					seconds = Long.parseLong(value);
 					break;
 				case "previous":
-					Main.prev = Integer.parseInt(value);
+					prev = Integer.parseInt(value);
 					break;
 				case "current":
-					Main.tmp.set(Integer.parseInt(value));
+					current = Long.parseLong(value);
 					break;
 				case "keys":
-					while(true){
-						in.mark(100);
-						line = in.readLine();
-						if(line == null){
-							break;
-						}
-						
-						Matcher m = STATS_LINE_REGEX.matcher(line);
-						if(m.matches()){
-							int code = Integer.parseInt(m.group(1));
-							Key key = Main.keys.get(code);
-							if(key == null){
-								key = new Key(
-									Integer.parseInt(m.group(2)),
-									Boolean.parseBoolean(m.group(3)),
-									Boolean.parseBoolean(m.group(4)),
-									Boolean.parseBoolean(m.group(5))
-								);
-								Main.keys.put(code, key);
-							}else{
-								key.setCount(Integer.parseInt(m.group(2)));
-							}
+					loadKeys(in);
+					break;
+				case "timing":
+					while(in.nextLine()){
+						if(in.matchTiming()){
+							KeyTiming timing = Main.keys.computeIfAbsent(in.getCode(), Key::new).getOrCreateTiming();
+							in.readHoldTimes(timing.getHoldTimes());
+							in.readIntervals(timing.getIntervals());
 						}else{
-							in.reset();
+							in.pushBack();
 							break;
 						}
 					}
@@ -269,11 +561,10 @@ public class Statistics{
 					throw new IllegalArgumentException("Cannot parse line: " + line);
 				}
 			}
-			in.close();
-		}catch(MalformedInputException e){
+		}catch(CharacterCodingException e){
 			throw new UnsupportedOperationException("Loading legacy statistics files is unsupported in this version.", e);
 		}
 
-		Main.frame.repaint();
+		Main.stats.restore(new StatsSnapshot(total, avg, max, seconds, prev, current));
 	}
 }
@@ -0,0 +1,171 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owner of the derived statistics: the total, average, maximum and
+ * current keys per second. Key presses are recorded without locking,
+ * they are folded into the statistics once per update of the main loop
+ * after which a new immutable snapshot is published. Readers on any
+ * thread only ever see complete snapshots and never block the main loop
+ * or input handling. All other modifications are rare and synchronized
+ * with the main loop update so that no hits are lost.
+ * @author Roan
+ * @see StatsSnapshot
+ */
+public class StatsEngine{
+	/**
+	 * The number of hits since the last update.
+	 */
+	private final StripedCounter pending = new StripedCounter();
+	/**
+	 * The highest keys per second value reached since the last update.
+	 */
+	private final AtomicInteger peak = new AtomicInteger(0);
+	/**
+	 * The most recently published snapshot.
+	 */
+	private volatile StatsSnapshot snapshot = StatsSnapshot.EMPTY;
+	
+	/**
+	 * Records a single hit.
+	 * @param kps The number of hits in the second up to and including this hit.
+	 */
+	public void recordHit(int kps){
+		pending.increment();
+		if(kps > peak.get()){
+			peak.accumulateAndGet(kps, Math::max);
+		}
+	}
+	
+	/**
+	 * Checks if any hits were recorded since the last update.
+	 * @return True if there are hits not yet included in the statistics.
+	 */
+	public boolean hasPendingHits(){
+		return pending.get() != 0;
+	}
+	
+	/**
+	 * Gets the most recently published statistics snapshot.
+	 * @return The latest statistics snapshot.
+	 */
+	public StatsSnapshot getSnapshot(){
+		return snapshot;
+	}
+	
+	/**
+	 * Captures a snapshot of the statistics that also includes
+	 * the hits recorded since the last update. Intended for
+	 * saving the statistics.
+	 * @return A snapshot with the pending hits.
+	 * @see StatsSnapshot#getPending()
+	 */
+	public synchronized StatsSnapshot capture(){
+		StatsSnapshot stats = snapshot;
+		return new StatsSnapshot(stats.getTotal(), stats.getAverage(), Math.max(stats.getMaximum(), peak.get()), stats.getSeconds(), stats.getPrevious(), pending.get());
+	}
+	
+	/**
+	 * Folds all hits recorded since the last update into the
+	 * statistics and publishes a new snapshot. Called by the
+	 * main loop once per update.
+	 * @param kps The current number of keys per second.
+	 * @return The newly published snapshot.
+	 */
+	public synchronized StatsSnapshot update(int kps){
+		StatsSnapshot stats = snapshot;
+		double avg = stats.getAverage();
+		long n = stats.getSeconds();
+		if(kps != 0){
+			avg = (avg * n + kps) / (n + 1.0D);
+			n++;
+		}
+		
+		stats = new StatsSnapshot(
+			stats.getTotal() + pending.drain(),
+			avg,
+			Math.max(stats.getMaximum(), peak.getAndSet(0)),
+			n,
+			kps,
+			0
+		);
+		snapshot = stats;
+		return stats;
+	}
+	
+	/**
+	 * Restores the statistics from the given snapshot, for
+	 * example a snapshot that was read from a saved file.
+	 * @param stats The snapshot to restore, pending hits are
+	 *        included in the total at the next update.
+	 */
+	public synchronized void restore(StatsSnapshot stats){
+		pending.set(stats.getPending());
+		peak.set(0);
+		snapshot = new StatsSnapshot(stats.getTotal(), stats.getAverage(), stats.getMaximum(), stats.getSeconds(), stats.getPrevious(), 0);
+	}
+	
+	/**
+	 * Resets all statistics.
+	 */
+	public synchronized void reset(){
+		pending.drain();
+		peak.set(0);
+		snapshot = StatsSnapshot.EMPTY;
+	}
+	
+	/**
+	 * Resets the maximum keys per second.
+	 */
+	public synchronized void resetMaximum(){
+		StatsSnapshot stats = snapshot;
+		peak.set(0);
+		snapshot = new StatsSnapshot(stats.getTotal(), stats.getAverage(), 0, stats.getSeconds(), stats.getPrevious(), 0);
+	}
+	
+	/**
+	 * Resets the average keys per second.
+	 */
+	public synchronized void resetAverage(){
+		StatsSnapshot stats = snapshot;
+		snapshot = new StatsSnapshot(stats.getTotal() + pending.drain(), 0.0D, stats.getMaximum(), 0L, stats.getPrevious(), 0);
+	}
+	
+	/**
+	 * Resets the total number of hits.
+	 */
+	public synchronized void resetTotal(){
+		StatsSnapshot stats = snapshot;
+		pending.drain();
+		snapshot = new StatsSnapshot(0, stats.getAverage(), stats.getMaximum(), stats.getSeconds(), stats.getPrevious(), 0);
+	}
+	
+	/**
+	 * Rescales the number of seconds the average has been calculated
+	 * for after the length of an update changed.
+	 * @param factor The ratio of the old update length to the new length.
+	 */
+	public synchronized void rescale(double factor){
+		StatsSnapshot stats = snapshot;
+		snapshot = new StatsSnapshot(stats.getTotal() + pending.drain(), stats.getAverage(), stats.getMaximum(), (long)(stats.getSeconds() * factor), stats.getPrevious(), 0);
+	}
+}
@@ -0,0 +1,427 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe binary journal of the statistics. A journal file starts with a
+ * snapshot record holding the full statistics, followed by delta records that
+ * hold the general statistics and the change in count for every key that was
+ * pressed since the previous record. Each record is checksummed and written to
+ * disk before the next commit, so after a crash the journal can be replayed up
+ * to the last complete record. Once the journal grows too large it is compacted
+ * by writing a fresh snapshot to a new file that atomically replaces the old one.
+ * <p>
+ * A journal file consists of a header with a magic number and format version
+ * followed by records. Each record is stored as its payload length, the payload
+ * and the CRC32 checksum of the payload. A payload consists of a record type,
+ * the total hits, the average, the maximum, the number of seconds, the number
+ * of key entries and then for every key entry its key code, (delta) count and
+ * flags. The flags hold the modifiers of the key or mark the key as no longer
+ * tracked. All values are stored in big-endian byte order.
+ * @author Roan
+ * @see Statistics
+ */
+public class StatsJournal{
+	/**
+	 * Magic number at the start of every journal file.
+	 */
+	private static final int MAGIC = 0x4B50534A;
+	/**
+	 * Version of the journal file format.
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * Size of the file header in bytes.
+	 */
+	private static final int HEADER_SIZE = 8;
+	/**
+	 * Size of a record payload without key entries in bytes.
+	 */
+	private static final int RECORD_SIZE = 1 + 8 + 8 + 4 + 8 + 4;
+	/**
+	 * Size of a single key entry in bytes.
+	 */
+	private static final int ENTRY_SIZE = 4 + 8 + 1;
+	/**
+	 * Record type of a record with the full statistics.
+	 */
+	private static final byte SNAPSHOT = 1;
+	/**
+	 * Record type of a record with the changes since the previous record.
+	 */
+	private static final byte DELTA = 2;
+	/**
+	 * Journal size in bytes after which the journal is compacted.
+	 */
+	private static final long COMPACT_SIZE = 1L << 18;
+	/**
+	 * Modifier flag for keys that require alt.
+	 */
+	private static final int ALT = 1;
+	/**
+	 * Modifier flag for keys that require ctrl.
+	 */
+	private static final int CTRL = 2;
+	/**
+	 * Modifier flag for keys that require shift.
+	 */
+	private static final int SHIFT = 4;
+	/**
+	 * Flag for keys that are no longer tracked.
+	 */
+	private static final int REMOVED = 8;
+	/**
+	 * The journal file.
+	 */
+	private final Path file;
+	/**
+	 * The key counts as of the last committed record.
+	 */
+	private final Map<Integer, Long> committed = new HashMap<Integer, Long>();
+	/**
+	 * Checksum used to compute record checksums.
+	 */
+	private final CRC32 crc = new CRC32();
+	/**
+	 * Buffer records are encoded to.
+	 */
+	private ByteBuffer buffer = ByteBuffer.allocate(4096);
+	/**
+	 * The general statistics as of the last committed record.
+	 */
+	private StatsSnapshot last = null;
+	/**
+	 * Channel to append records to or null if no snapshot was written yet.
+	 */
+	private FileChannel channel = null;
+	/**
+	 * Whether this journal was closed.
+	 */
+	private boolean closed = false;
+	
+	/**
+	 * Constructs a new journal. The journal file is replaced with a
+	 * snapshot of the current statistics on the first commit.
+	 * @param file The journal file.
+	 */
+	public StatsJournal(Path file){
+		this.file = file;
+	}
+	
+	/**
+	 * Appends all changes to the statistics since the last commit to the
+	 * journal and forces them to disk. If nothing changed nothing is written.
+	 * If the journal grew too large it is compacted instead.
+	 * @throws IOException When an IOException occurs.
+	 */
+	public synchronized void commit() throws IOException{
+		if(closed){
+			return;
+		}
+		
+		if(channel == null || channel.size() >= COMPACT_SIZE){
+			compact();
+			return;
+		}
+		
+		StatsSnapshot stats = Main.stats.capture();
+		beginRecord(DELTA, stats);
+		int[] entries = new int[1];
+		Main.keys.forEach((code, key)->{
+			long count = key.getCount();
+			Long previous = committed.put(code, count);
+			long delta = previous == null ? count : count - previous;
+			if(delta != 0 || previous == null){
+				writeEntry(code, delta, key);
+				entries[0]++;
+			}
+		});
+		
+		//keys that were removed since the last commit
+		Iterator<Entry<Integer, Long>> iter = committed.entrySet().iterator();
+		while(iter.hasNext()){
+			Entry<Integer, Long> entry = iter.next();
+			if(!Main.keys.containsKey(entry.getKey())){
+				writeEntry(entry.getKey(), 0L, null);
+				iter.remove();
+				entries[0]++;
+			}
+		}
+		
+		if(entries[0] == 0 && isUnchanged(stats)){
+			return;
+		}
+		
+		try{
+			channel.write(endRecord(entries[0]));
+			channel.force(false);
+			last = stats;
+		}catch(IOException e){
+			//the committed counts are no longer in sync with the file, start over with a snapshot
+			channel.close();
+			channel = null;
+			throw e;
+		}
+	}
+	
+	/**
+	 * Compacts the journal by replacing it with a journal that only
+	 * holds a snapshot of the current statistics. The new journal is
+	 * written to a temporary file first that then atomically replaces
+	 * the existing journal, so a crash leaves either the old or the new
+	 * journal behind.
+	 * @throws IOException When an IOException occurs.
+	 */
+	public synchronized void compact() throws IOException{
+		if(closed){
+			return;
+		}
+		
+		StatsSnapshot stats = Main.stats.capture();
+		committed.clear();
+		beginRecord(SNAPSHOT, stats);
+		int[] entries = new int[1];
+		Main.keys.forEach((code, key)->{
+			long count = key.getCount();
+			committed.put(code, count);
+			writeEntry(code, count, key);
+			entries[0]++;
+		});
+		ByteBuffer record = endRecord(entries[0]);
+		
+		Path parent = file.toAbsolutePath().getParent();
+		if(parent != null){
+			Files.createDirectories(parent);
+		}
+		
+		if(channel != null){
+			channel.close();
+			channel = null;
+		}
+		
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try(FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.flip();
+			out.write(header);
+			out.write(record);
+			out.force(true);
+		}
+		
+		Statistics.replaceFile(tmp, file);
+		channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		last = stats;
+	}
+	
+	/**
+	 * Commits any remaining changes and closes this journal.
+	 * @throws IOException When an IOException occurs.
+	 */
+	public synchronized void close() throws IOException{
+		try{
+			commit();
+		}finally{
+			closed = true;
+			if(channel != null){
+				channel.close();
+				channel = null;
+			}
+		}
+	}
+	
+	/**
+	 * Checks if the general statistics are the same as in the last committed record.
+	 * @param stats The current general statistics.
+	 * @return True if the general statistics did not change.
+	 */
+	private boolean isUnchanged(StatsSnapshot stats){
+		return last != null
+			&& stats.getTotal() + stats.getPending() == last.getTotal() + last.getPending()
+			&& stats.getAverage() == last.getAverage()
+			&& stats.getMaximum() == last.getMaximum()
+			&& stats.getSeconds() == last.getSeconds();
+	}
+	
+	/**
+	 * Starts encoding a new record.
+	 * @param type The record type.
+	 * @param stats The general statistics to store in the record.
+	 */
+	private void beginRecord(byte type, StatsSnapshot stats){
+		buffer.clear();
+		buffer.putInt(0);
+		buffer.put(type);
+		buffer.putLong(stats.getTotal() + stats.getPending());
+		buffer.putDouble(stats.getAverage());
+		buffer.putInt(stats.getMaximum());
+		buffer.putLong(stats.getSeconds());
+		buffer.putInt(0);
+	}
+	
+	/**
+	 * Encodes a key entry in the current record.
+	 * @param code The key code.
+	 * @param count The (delta) count of the key.
+	 * @param key The key or null if the key is no longer tracked.
+	 */
+	private void writeEntry(int code, long count, Key key){
+		if(buffer.remaining() < ENTRY_SIZE + 4){
+			ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+		}
+		
+		buffer.putInt(code);
+		buffer.putLong(count);
+		buffer.put((byte)(key == null ? REMOVED : ((key.hasAlt() ? ALT : 0) | (key.hasCtrl() ? CTRL : 0) | (key.hasShift() ? SHIFT : 0))));
+	}
+	
+	/**
+	 * Finishes encoding the current record.
+	 * @param entries The number of key entries in the record.
+	 * @return A buffer with the complete encoded record.
+	 */
+	private ByteBuffer endRecord(int entries){
+		int length = buffer.position() - 4;
+		buffer.putInt(4 + RECORD_SIZE - 4, entries);
+		buffer.putInt(0, length);
+		
+		crc.reset();
+		crc.update(buffer.array(), 4, length);
+		buffer.putInt((int)crc.getValue());
+		buffer.flip();
+		return buffer;
+	}
+	
+	/**
+	 * Replays the given journal and restores the statistics it holds. Replay
+	 * stops at the first incomplete or corrupted record, which is what remains
+	 * of a record that was being written when the program was terminated.
+	 * Keys that were no longer tracked when the journal ended are removed.
+	 * @param file The journal file to replay.
+	 * @return True if the journal was replayed, false if it does not exist.
+	 * @throws IOException When an IOException occurs or
+	 *         when the file is not a valid journal.
+	 */
+	public static boolean replay(Path file) throws IOException{
+		ByteBuffer data;
+		try{
+			data = ByteBuffer.wrap(Files.readAllBytes(file));
+		}catch(NoSuchFileException e){
+			return false;
+		}
+		
+		if(data.remaining() < HEADER_SIZE || data.getInt() != MAGIC || data.getInt() != VERSION){
+			throw new IOException("Not a valid statistics journal: " + file);
+		}
+		
+		Map<Integer, long[]> keys = new LinkedHashMap<Integer, long[]>();
+		Set<Integer> removed = new HashSet<Integer>();
+		StatsSnapshot stats = null;
+		CRC32 crc = new CRC32();
+		try{
+			while(data.remaining() >= 4){
+				int length = data.getInt();
+				if(length < RECORD_SIZE || length > data.remaining() - 4){
+					break;
+				}
+				
+				int start = data.position();
+				crc.reset();
+				crc.update(data.array(), start, length);
+				if(data.getInt(start + length) != (int)crc.getValue()){
+					break;
+				}
+				
+				byte type = data.get();
+				if(type == SNAPSHOT){
+					keys.clear();
+					removed.clear();
+				}
+				
+				stats = new StatsSnapshot(data.getLong(), data.getDouble(), data.getInt(), data.getLong(), 0, 0);
+				int entries = data.getInt();
+				for(int i = 0; i < entries; i++){
+					int code = data.getInt();
+					long count = data.getLong();
+					byte flags = data.get();
+					if((flags & REMOVED) != 0){
+						keys.remove(code);
+						removed.add(code);
+					}else{
+						removed.remove(code);
+						long[] key = keys.computeIfAbsent(code, c->new long[]{0L, flags});
+						key[0] += count;
+					}
+				}
+				
+				data.position(start + length + 4);
+			}
+		}catch(BufferUnderflowException e){
+			//a record with a valid checksum but invalid content, treat as the end of the journal
+		}
+		
+		if(!removed.isEmpty()){
+			Main.keys.removeIf(removed::contains);
+		}
+		
+		int[] codes = new int[keys.size()];
+		Key[] added = new Key[keys.size()];
+		int size = 0;
+		for(Entry<Integer, long[]> entry : keys.entrySet()){
+			long[] info = entry.getValue();
+			Key key = Main.keys.get(entry.getKey());
+			if(key == null){
+				int modifiers = (int)info[1];
+				codes[size] = entry.getKey();
+				added[size++] = new Key(info[0], (modifiers & ALT) != 0, (modifiers & CTRL) != 0, (modifiers & SHIFT) != 0);
+			}else{
+				key.setCount(info[0]);
+			}
+		}
+		
+		Main.keys.putAll(codes, added, size);
+		
+		if(stats != null){
+			Main.stats.restore(stats);
+		}
+		
+		return true;
+	}
+}
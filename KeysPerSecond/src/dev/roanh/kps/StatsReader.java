@@ -0,0 +1,502 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single pass reader for the lines of a statistics save file. Key and
+ * key timing lines are matched and parsed directly from the raw bytes
+ * of the file without creating intermediate strings, since files that
+ * track all keys can hold a very large number of them. All other lines
+ * are few and are decoded to strings.
+ * @author Roan
+ * @see Statistics
+ */
+final class StatsReader{
+	/**
+	 * Prefix of every key and key timing line.
+	 */
+	private static final byte[] ITEM = ascii("  - [keycode=");
+	/**
+	 * Separator before the hit count of a key.
+	 */
+	private static final byte[] COUNT = ascii(",count=");
+	/**
+	 * Separator before the alt modifier of a key.
+	 */
+	private static final byte[] ALT = ascii(",alt=");
+	/**
+	 * Separator before the ctrl modifier of a key.
+	 */
+	private static final byte[] CTRL = ascii(",ctrl=");
+	/**
+	 * Separator before the shift modifier of a key.
+	 */
+	private static final byte[] SHIFT = ascii(",shift=");
+	/**
+	 * Separator before the (unused) name of a key.
+	 */
+	private static final byte[] NAME = ascii(",name=\"");
+	/**
+	 * Separator before the hold time histogram of a key.
+	 */
+	private static final byte[] HOLD = ascii(",hold=");
+	/**
+	 * Separator before the press interval histogram of a key.
+	 */
+	private static final byte[] INTERVAL = ascii(",interval=");
+	/**
+	 * Boolean true literal.
+	 */
+	private static final byte[] TRUE = ascii("true");
+	/**
+	 * Boolean false literal.
+	 */
+	private static final byte[] FALSE = ascii("false");
+	/**
+	 * Value returned when no number is present.
+	 */
+	private static final long NO_NUMBER = Long.MIN_VALUE;
+	/**
+	 * The file contents.
+	 */
+	private final byte[] data;
+	/**
+	 * Decoder used to decode lines that are not key or timing lines.
+	 */
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+	/**
+	 * Offset of the next line to read.
+	 */
+	private int pos = 0;
+	/**
+	 * Offset of the first byte of the current line.
+	 */
+	private int start;
+	/**
+	 * Offset just past the last byte of the current line.
+	 */
+	private int end;
+	/**
+	 * Offset of the next byte to match in the current line.
+	 */
+	private int cursor;
+	/**
+	 * Key code of the last matched key or timing line.
+	 */
+	private int code;
+	/**
+	 * Hit count of the last matched key line.
+	 */
+	private long count;
+	/**
+	 * Whether the last matched key line requires alt.
+	 */
+	private boolean alt;
+	/**
+	 * Whether the last matched key line requires ctrl.
+	 */
+	private boolean ctrl;
+	/**
+	 * Whether the last matched key line requires shift.
+	 */
+	private boolean shift;
+	/**
+	 * Bounds of the hold time histogram of the last matched timing line.
+	 */
+	private int holdStart, holdEnd;
+	/**
+	 * Bounds of the press interval histogram of the last matched timing line.
+	 */
+	private int intervalStart, intervalEnd;
+	
+	/**
+	 * Constructs a new reader for the given file contents.
+	 * @param data The file contents.
+	 */
+	protected StatsReader(byte[] data){
+		this.data = data;
+	}
+	
+	/**
+	 * Checks if the data is a legacy statistics file, which
+	 * were written using Java object serialization.
+	 * @return True if the data is a legacy statistics file.
+	 */
+	protected boolean isLegacy(){
+		return data.length >= 2 && data[0] == (byte)0xAC && data[1] == (byte)0xED;
+	}
+	
+	/**
+	 * Advances to the next line. Lines can be terminated
+	 * by a line feed, a carriage return or both.
+	 * @return True if there was a next line, false at the end of the data.
+	 */
+	protected boolean nextLine(){
+		if(pos >= data.length){
+			return false;
+		}
+		
+		start = pos;
+		int idx = pos;
+		while(idx < data.length && data[idx] != '\n' && data[idx] != '\r'){
+			idx++;
+		}
+		
+		end = idx;
+		if(idx < data.length && data[idx] == '\r'){
+			idx++;
+		}
+		
+		if(idx < data.length && data[idx] == '\n' && (idx == end || data[idx - 1] == '\r')){
+			idx++;
+		}
+		
+		pos = idx;
+		return true;
+	}
+	
+	/**
+	 * Steps back so the next call to {@link #nextLine()} returns the current line again.
+	 */
+	protected void pushBack(){
+		pos = start;
+	}
+	
+	/**
+	 * Checks if the current line is empty or a comment.
+	 * @return True if the current line is empty or a comment.
+	 */
+	protected boolean isBlank(){
+		return start == end || data[start] == '#';
+	}
+	
+	/**
+	 * Gets the current line as a string.
+	 * @return The current line.
+	 * @throws CharacterCodingException When the line is not valid UTF-8.
+	 */
+	protected String getLine() throws CharacterCodingException{
+		return decoder.decode(ByteBuffer.wrap(data, start, end - start)).toString();
+	}
+	
+	/**
+	 * Attempts to match the current line as a key line, for example
+	 * <code>  - [keycode=65,count=10,alt=false,ctrl=true,shift=false,name="-"]</code>.
+	 * @return True if the line is a key line.
+	 * @throws NumberFormatException When the key code or count are out of range.
+	 * @see #getCode()
+	 * @see #getCount()
+	 */
+	protected boolean matchKey() throws NumberFormatException{
+		cursor = start;
+		if(!match(ITEM)){
+			return false;
+		}
+		
+		long key = readNumber(true);
+		if(key == NO_NUMBER || !match(COUNT)){
+			return false;
+		}
+		
+		long hits = readNumber(false);
+		if(hits == NO_NUMBER || !match(ALT)){
+			return false;
+		}
+		
+		int alt = readBoolean();
+		if(alt == -1 || !match(CTRL)){
+			return false;
+		}
+		
+		int ctrl = readBoolean();
+		if(ctrl == -1 || !match(SHIFT)){
+			return false;
+		}
+		
+		int shift = readBoolean();
+		if(shift == -1 || !match(NAME)){
+			return false;
+		}
+		
+		//the name is no longer used but has to be followed by the closing quote and bracket
+		if(end - cursor < 2 || data[end - 2] != '"' || data[end - 1] != ']'){
+			return false;
+		}
+		
+		code = toInt(key);
+		count = hits;
+		this.alt = alt == 1;
+		this.ctrl = ctrl == 1;
+		this.shift = shift == 1;
+		return true;
+	}
+	
+	/**
+	 * Attempts to match the current line as a key timing line, for example
+	 * <code>  - [keycode=65,hold=12:3;13:1,interval=20:4]</code>.
+	 * @return True if the line is a key timing line.
+	 * @throws NumberFormatException When the key code is out of range.
+	 * @see #getCode()
+	 * @see #readHoldTimes(LatencyHistogram)
+	 * @see #readIntervals(LatencyHistogram)
+	 */
+	protected boolean matchTiming() throws NumberFormatException{
+		cursor = start;
+		if(!match(ITEM)){
+			return false;
+		}
+		
+		long key = readNumber(true);
+		if(key == NO_NUMBER || !match(HOLD)){
+			return false;
+		}
+		
+		int hold = cursor;
+		skipHistogram();
+		int holdEnd = cursor;
+		if(!match(INTERVAL)){
+			return false;
+		}
+		
+		int interval = cursor;
+		skipHistogram();
+		if(cursor != end - 1 || data[cursor] != ']'){
+			return false;
+		}
+		
+		code = toInt(key);
+		holdStart = hold;
+		this.holdEnd = holdEnd;
+		intervalStart = interval;
+		intervalEnd = cursor;
+		return true;
+	}
+	
+	/**
+	 * Gets the key code of the last matched key or key timing line.
+	 * @return The key code.
+	 */
+	protected int getCode(){
+		return code;
+	}
+	
+	/**
+	 * Gets the hit count of the last matched key line.
+	 * @return The hit count.
+	 */
+	protected long getCount(){
+		return count;
+	}
+	
+	/**
+	 * Checks if the last matched key line requires alt.
+	 * @return True if the key requires alt.
+	 */
+	protected boolean hasAlt(){
+		return alt;
+	}
+	
+	/**
+	 * Checks if the last matched key line requires ctrl.
+	 * @return True if the key requires ctrl.
+	 */
+	protected boolean hasCtrl(){
+		return ctrl;
+	}
+	
+	/**
+	 * Checks if the last matched key line requires shift.
+	 * @return True if the key requires shift.
+	 */
+	protected boolean hasShift(){
+		return shift;
+	}
+	
+	/**
+	 * Replaces the content of the given histogram with the
+	 * hold times of the last matched key timing line.
+	 * @param histogram The histogram to restore.
+	 * @throws IllegalArgumentException When the histogram data is not valid.
+	 */
+	protected void readHoldTimes(LatencyHistogram histogram) throws IllegalArgumentException{
+		readHistogram(holdStart, holdEnd, histogram);
+	}
+	
+	/**
+	 * Replaces the content of the given histogram with the press
+	 * intervals of the last matched key timing line.
+	 * @param histogram The histogram to restore.
+	 * @throws IllegalArgumentException When the histogram data is not valid.
+	 */
+	protected void readIntervals(LatencyHistogram histogram) throws IllegalArgumentException{
+		readHistogram(intervalStart, intervalEnd, histogram);
+	}
+	
+	/**
+	 * Replaces the content of the given histogram with the buckets stored
+	 * in the given range as a semicolon separated list of bucket index and
+	 * count pairs.
+	 * @param from The offset of the first byte of the bucket list.
+	 * @param to The offset just past the last byte of the bucket list.
+	 * @param histogram The histogram to restore.
+	 * @throws IllegalArgumentException When the histogram data is not valid.
+	 */
+	private void readHistogram(int from, int to, LatencyHistogram histogram) throws IllegalArgumentException{
+		histogram.clear();
+		
+		//trailing separators are ignored
+		while(to > from && data[to - 1] == ';'){
+			to--;
+		}
+		
+		while(from < to){
+			int next = from;
+			while(next < to && data[next] != ';'){
+				next++;
+			}
+			
+			cursor = from;
+			long idx = readNumber(false);
+			if(idx == NO_NUMBER || cursor == next || data[cursor] != ':'){
+				throw new IllegalArgumentException("Invalid histogram bucket: " + ascii(from, next));
+			}
+			
+			cursor++;
+			long value = readNumber(false);
+			if(value == NO_NUMBER || cursor != next){
+				throw new NumberFormatException("For input string: \"" + ascii(from, next) + "\"");
+			}
+			
+			if(idx >= LatencyHistogram.BUCKETS){
+				throw new IllegalArgumentException("Invalid histogram bucket: " + ascii(from, next));
+			}
+			
+			histogram.addBucket((int)idx, value);
+			from = next + 1;
+		}
+	}
+	
+	/**
+	 * Advances the cursor past the given literal if it is next in the current line.
+	 * @param literal The literal to match.
+	 * @return True if the literal matched.
+	 */
+	private boolean match(byte[] literal){
+		if(end - cursor < literal.length){
+			return false;
+		}
+		
+		for(int i = 0; i < literal.length; i++){
+			if(data[cursor + i] != literal[i]){
+				return false;
+			}
+		}
+		
+		cursor += literal.length;
+		return true;
+	}
+	
+	/**
+	 * Reads a boolean literal at the cursor.
+	 * @return 1 for true, 0 for false and -1 if there is no boolean literal.
+	 */
+	private int readBoolean(){
+		return match(TRUE) ? 1 : (match(FALSE) ? 0 : -1);
+	}
+	
+	/**
+	 * Reads a decimal number at the cursor.
+	 * @param signed Whether the number can be negative.
+	 * @return The number read or {@link #NO_NUMBER} if there are no digits at the cursor.
+	 * @throws NumberFormatException When the number does not fit in a long.
+	 */
+	private long readNumber(boolean signed) throws NumberFormatException{
+		int from = cursor;
+		boolean negative = signed && cursor < end && data[cursor] == '-';
+		if(negative){
+			cursor++;
+		}
+		
+		int digits = cursor;
+		long value = 0;
+		while(cursor < end && data[cursor] >= '0' && data[cursor] <= '9'){
+			int digit = data[cursor] - '0';
+			if(value > (Long.MAX_VALUE - digit) / 10){
+				throw new NumberFormatException("For input string: \"" + ascii(from, end) + "\"");
+			}
+			
+			value = value * 10 + digit;
+			cursor++;
+		}
+		
+		if(cursor == digits){
+			cursor = from;
+			return NO_NUMBER;
+		}
+		
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * Advances the cursor past all histogram bucket characters.
+	 */
+	private void skipHistogram(){
+		while(cursor < end && ((data[cursor] >= '0' && data[cursor] <= '9') || data[cursor] == ':' || data[cursor] == ';')){
+			cursor++;
+		}
+	}
+	
+	/**
+	 * Converts a parsed key code to an integer.
+	 * @param value The parsed key code.
+	 * @return The key code.
+	 * @throws NumberFormatException When the value is out of range for a key code.
+	 */
+	private int toInt(long value) throws NumberFormatException{
+		if(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE){
+			throw new NumberFormatException("Key code out of range: " + value);
+		}
+		
+		return (int)value;
+	}
+	
+	/**
+	 * Decodes the given range of the data as ASCII, used for error messages.
+	 * @param from The offset of the first byte.
+	 * @param to The offset just past the last byte.
+	 * @return The decoded string.
+	 */
+	private String ascii(int from, int to){
+		return new String(data, from, to - from, StandardCharsets.US_ASCII);
+	}
+	
+	/**
+	 * Encodes the given string as ASCII.
+	 * @param str The string to encode.
+	 * @return The encoded string.
+	 */
+	private static byte[] ascii(String str){
+		return str.getBytes(StandardCharsets.US_ASCII);
+	}
+}
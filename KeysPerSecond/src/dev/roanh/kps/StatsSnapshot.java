@@ -0,0 +1,125 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+/**
+ * Immutable view of the derived statistics at a single point in time.
+ * @author Roan
+ * @see StatsEngine
+ */
+public final class StatsSnapshot{
+	/**
+	 * Snapshot of the statistics before any input was received.
+	 */
+	public static final StatsSnapshot EMPTY = new StatsSnapshot(0, 0.0D, 0, 0L, 0, 0);
+	/**
+	 * Total number of hits.
+	 */
+	private final long total;
+	/**
+	 * The average keys per second.
+	 */
+	private final double average;
+	/**
+	 * The maximum keys per second value reached.
+	 */
+	private final int maximum;
+	/**
+	 * The number of seconds the average has been calculated for.
+	 */
+	private final long seconds;
+	/**
+	 * The keys per second of the previous second.
+	 */
+	private final int previous;
+	/**
+	 * The number of hits not yet included in the total.
+	 */
+	private final long pending;
+	
+	/**
+	 * Constructs a new statistics snapshot.
+	 * @param total The total number of hits.
+	 * @param average The average keys per second.
+	 * @param maximum The maximum keys per second.
+	 * @param seconds The number of seconds the average has been calculated for.
+	 * @param previous The keys per second of the previous second.
+	 * @param pending The number of hits not yet included in the total.
+	 */
+	public StatsSnapshot(long total, double average, int maximum, long seconds, int previous, long pending){
+		this.total = total;
+		this.average = average;
+		this.maximum = maximum;
+		this.seconds = seconds;
+		this.previous = previous;
+		this.pending = pending;
+	}
+	
+	/**
+	 * Gets the total number of hits.
+	 * @return The total number of hits.
+	 */
+	public long getTotal(){
+		return total;
+	}
+	
+	/**
+	 * Gets the average keys per second.
+	 * @return The average keys per second.
+	 */
+	public double getAverage(){
+		return average;
+	}
+	
+	/**
+	 * Gets the maximum keys per second value reached so far.
+	 * @return The maximum keys per second.
+	 */
+	public int getMaximum(){
+		return maximum;
+	}
+	
+	/**
+	 * Gets the number of seconds the average has been calculated for.
+	 * @return The number of seconds in the average.
+	 */
+	public long getSeconds(){
+		return seconds;
+	}
+	
+	/**
+	 * Gets the keys per second of the previous second, this
+	 * is the value displayed as the current keys per second.
+	 * @return The keys per second of the previous second.
+	 */
+	public int getPrevious(){
+		return previous;
+	}
+	
+	/**
+	 * Gets the number of hits received since the last update that are not
+	 * yet included in the total. Always 0 for snapshots published by the
+	 * main loop, only captured snapshots include pending hits.
+	 * @return The number of pending hits.
+	 * @see StatsEngine#capture()
+	 */
+	public long getPending(){
+		return pending;
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 64-bit counter that stays cheap when it is incremented from several
+ * threads at the same time. Without contention all updates go to a single
+ * base value. Once two threads collide the counter spreads updates over a
+ * number of cells that are spaced a cache line apart.
+ * Unlike {@link java.util.concurrent.atomic.LongAdder} this counter can
+ * be drained atomically per cell, so an increment is never lost between
+ * reading the count and resetting it.
+ * @author Roan
+ */
+public class StripedCounter{
+	/**
+	 * Number of longs between consecutive cells, one cache line.
+	 */
+	private static final int PADDING = 8;
+	/**
+	 * Number of cells used once the counter is contended, the
+	 * smallest power of two that is at least the number of processors.
+	 */
+	private static final int CELLS = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+	/**
+	 * The base value, updated while there is no contention.
+	 */
+	private final AtomicLong base = new AtomicLong();
+	/**
+	 * The cells updated under contention or null if there was no contention yet.
+	 */
+	private volatile AtomicLongArray cells = null;
+	
+	/**
+	 * Constructs a new counter with a count of zero.
+	 */
+	public StripedCounter(){
+	}
+	
+	/**
+	 * Constructs a new counter with the given initial count.
+	 * @param count The initial count.
+	 */
+	public StripedCounter(long count){
+		base.set(count);
+	}
+	
+	/**
+	 * Increments the count by one.
+	 */
+	public void increment(){
+		add(1L);
+	}
+	
+	/**
+	 * Adds the given value to the count.
+	 * @param value The value to add.
+	 */
+	public void add(long value){
+		AtomicLongArray stripes = cells;
+		if(stripes == null){
+			long current = base.get();
+			if(base.compareAndSet(current, current + value)){
+				return;
+			}
+			
+			stripes = expand();
+		}
+		
+		stripes.getAndAdd(index(), value);
+	}
+	
+	/**
+	 * Gets the current count. With concurrent updates the
+	 * returned value includes an arbitrary subset of them.
+	 * @return The current count.
+	 */
+	public long get(){
+		long sum = base.get();
+		AtomicLongArray stripes = cells;
+		if(stripes != null){
+			for(int i = 0; i < stripes.length(); i += PADDING){
+				sum += stripes.get(i);
+			}
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Resets the count to zero and returns the count before the reset.
+	 * Every concurrent update is either included in the returned count
+	 * or remains in the counter after the reset, so updates are never lost.
+	 * @return The count before the reset.
+	 */
+	public long drain(){
+		long sum = base.getAndSet(0L);
+		AtomicLongArray stripes = cells;
+		if(stripes != null){
+			for(int i = 0; i < stripes.length(); i += PADDING){
+				if(stripes.get(i) != 0L){
+					sum += stripes.getAndSet(i, 0L);
+				}
+			}
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Sets the count to the given value. Updates that happen
+	 * concurrently with this call may be overwritten.
+	 * @param count The new count.
+	 */
+	public void set(long count){
+		drain();
+		base.addAndGet(count);
+	}
+	
+	/**
+	 * Gets the index of the cell for the current thread.
+	 * @return The cell index for the current thread.
+	 */
+	private static int index(){
+		long id = Thread.currentThread().getId();
+		int hash = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+		return ((hash >>> 16) & (CELLS - 1)) * PADDING;
+	}
+	
+	/**
+	 * Creates the cells for this counter if they do not exist yet.
+	 * @return The cells of this counter.
+	 */
+	private synchronized AtomicLongArray expand(){
+		AtomicLongArray stripes = cells;
+		if(stripes == null){
+			stripes = new AtomicLongArray(CELLS * PADDING);
+			cells = stripes;
+		}
+		
+		return stripes;
+	}
+}
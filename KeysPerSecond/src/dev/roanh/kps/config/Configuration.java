@@ -28,11 +28,13 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import dev.roanh.kps.KeyTiming;
 import dev.roanh.kps.Main;
 import dev.roanh.kps.config.group.AveragePanelSettings;
 import dev.roanh.kps.config.group.CommandSettings;
 import dev.roanh.kps.config.group.CurrentPanelSettings;
 import dev.roanh.kps.config.group.GraphPanelSettings;
+import dev.roanh.kps.config.group.InputSettings;
 import dev.roanh.kps.config.group.LineGraphSettings;
 import dev.roanh.kps.config.group.KeyPanelSettings;
 import dev.roanh.kps.config.group.LayoutSettings;
@@ -90,6 +92,10 @@ public class Configuration{
 	 * Whether or not the frame is in windowed mode.
 	 */
 	private final BooleanSetting windowed = new BooleanSetting("windowed", false);
+	/**
+	 * Whether or not to track timing statistics for individual keys.
+	 */
+	private final BooleanSetting keyTiming = new BooleanSetting("trackKeyTiming", false);
 	/**
 	 * The saved on screen position of the main frame (if previously saved).
 	 */
@@ -110,6 +116,10 @@ public class Configuration{
 	 * Automatic statistics saving settings.
 	 */
 	private final StatsSavingSettings statsSaving = new StatsSavingSettings();
+	/**
+	 * Input handling settings.
+	 */
+	private final InputSettings input = new InputSettings();
 	/**
 	 * Graph settings.
 	 */
@@ -199,7 +209,7 @@ public class Configuration{
 	 * @return All settings in this configuration.
 	 */
 	protected List<Setting<?>> getSettings(){
-		return Arrays.asList(overlay, trackAllKeys, trackAllButtons, updateRate, enableModifiers, windowed);
+		return Arrays.asList(overlay, trackAllKeys, trackAllButtons, updateRate, enableModifiers, windowed, keyTiming);
 	}
 	
 	/**
@@ -207,7 +217,7 @@ public class Configuration{
 	 * @return All setting groups in this configuration.
 	 */
 	protected List<SettingGroup> getSettingGroups(){
-		return Arrays.asList(position, theme, commands, layout, statsSaving);
+		return Arrays.asList(position, theme, commands, layout, statsSaving, input);
 	}
 	
 	/**
@@ -326,6 +336,14 @@ public class Configuration{
 		return statsSaving;
 	}
 	
+	/**
+	 * Gets the input handling configuration.
+	 * @return The input handling configuration.
+	 */
+	public InputSettings getInputSettings(){
+		return input;
+	}
+	
 	/**
 	 * Checks if key-modifier tracking is enabled.
 	 * @return True if key-modifier tracking is enabled.
@@ -390,6 +408,25 @@ public class Configuration{
 		trackAllButtons.update(track);
 	}
 	
+	/**
+	 * Checks if timing statistics are tracked for individual keys. These
+	 * statistics are a rolling rate of presses, the distribution of hold
+	 * durations and the distribution of intervals between presses.
+	 * @return True if key timing statistics are tracked.
+	 * @see KeyTiming
+	 */
+	public boolean isKeyTimingEnabled(){
+		return keyTiming.getValue();
+	}
+	
+	/**
+	 * Sets whether timing statistics are tracked for individual keys.
+	 * @param enabled True to track key timing statistics.
+	 */
+	public void setKeyTimingEnabled(boolean enabled){
+		keyTiming.update(enabled);
+	}
+	
 	/**
 	 * Sets whether overlay mode is enabled.
 	 * @param overlay True to enable overlay mode.
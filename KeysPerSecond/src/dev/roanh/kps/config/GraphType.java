@@ -25,6 +25,8 @@ import java.util.function.Supplier;
 import dev.roanh.kps.config.ListItemConstructor.ParsedItem;
 import dev.roanh.kps.config.group.CursorGraphSettings;
 import dev.roanh.kps.config.group.GraphPanelSettings;
+import dev.roanh.kps.config.group.HeatmapGraphSettings;
+import dev.roanh.kps.config.group.HoldGraphSettings;
 import dev.roanh.kps.config.group.LineGraphSettings;
 
 /**
@@ -40,7 +42,15 @@ public enum GraphType{
 	/**
 	 * Cursor graph showing the cursor trail.
 	 */
-	CURSOR("cursor", CursorGraphSettings::new);
+	CURSOR("cursor", CursorGraphSettings::new),
+	/**
+	 * Heatmap graph showing where the cursor spends its time.
+	 */
+	HEATMAP("heatmap", HeatmapGraphSettings::new),
+	/**
+	 * Bar graph showing how long each key is held down.
+	 */
+	HOLD("hold", HoldGraphSettings::new);
 	
 	/**
 	 * The graph type identifier.
@@ -25,9 +25,11 @@ import java.util.function.Supplier;
 import dev.roanh.kps.config.ListItemConstructor.ParsedItem;
 import dev.roanh.kps.config.group.AveragePanelSettings;
 import dev.roanh.kps.config.group.CurrentPanelSettings;
+import dev.roanh.kps.config.group.KeyTimingPanelSettings;
 import dev.roanh.kps.config.group.LastPanelSettings;
 import dev.roanh.kps.config.group.MaxPanelSettings;
 import dev.roanh.kps.config.group.SpecialPanelSettings;
+import dev.roanh.kps.config.group.SuppressedPanelSettings;
 import dev.roanh.kps.config.group.TotalPanelSettings;
 
 /**
@@ -55,7 +57,15 @@ public enum PanelType{
 	/**
 	 * Last panel that shows the time since the last tracked input.
 	 */
-	LAST("last", LastPanelSettings::new);
+	LAST("last", LastPanelSettings::new),
+	/**
+	 * Timing panel that shows a timing statistic of a single key.
+	 */
+	TIMING("timing", KeyTimingPanelSettings::new),
+	/**
+	 * Suppressed panel that shows the number of presses suppressed as chatter.
+	 */
+	SUPPRESSED("suppressed", SuppressedPanelSettings::new);
 	
 	/**
 	 * The panel type identifier.
@@ -93,4 +93,29 @@ public abstract class SettingGroup{
 		}
 		return modified;
 	}
+	
+	/**
+	 * Resolves the given settings by their key from the given map of data and
+	 * attempts to parse the provided data for each setting. Unlike with
+	 * {@link #findAndParse(Map, Setting...)} settings that are missing are reset
+	 * without counting as a default value being used. This is intended for settings
+	 * that were added in a later version, so that existing configurations that
+	 * predate them are not reported as incomplete.
+	 * @param data The key-value setting data.
+	 * @param settings The settings to resolve and parse.
+	 * @return True if default values were used because of invalid setting values.
+	 * @see Setting#parse(String)
+	 */
+	protected boolean findAndParseOptional(Map<String, String> data, Setting<?>... settings){
+		boolean modified = false;
+		for(Setting<?> setting : settings){
+			String val = data.get(setting.getKey());
+			if(val == null){
+				setting.reset();
+			}else{
+				modified |= setting.parse(val);
+			}
+		}
+		return modified;
+	}
 }
@@ -0,0 +1,75 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.config;
+
+import dev.roanh.kps.KeyTiming;
+
+/**
+ * Enum of key timing statistics that can be shown in a panel.
+ * @author Roan
+ * @see KeyTiming
+ */
+public enum TimingMetric{
+	/**
+	 * The number of presses of the key in the last second.
+	 */
+	RATE("Presses per second"),
+	/**
+	 * A percentile of the time the key is held down.
+	 */
+	HOLD("Hold time (ms)"),
+	/**
+	 * The time the key is currently held down, or was held down the last time.
+	 */
+	CURRENT_HOLD("Current hold time (ms)"),
+	/**
+	 * The average time the key is held down.
+	 */
+	AVERAGE_HOLD("Average hold time (ms)"),
+	/**
+	 * A percentile of the time between consecutive presses of the key.
+	 */
+	INTERVAL("Press interval (ms)");
+	
+	/**
+	 * The display name of this metric.
+	 */
+	private final String name;
+	
+	/**
+	 * Constructs a new timing metric.
+	 * @param name The display name of the metric.
+	 */
+	private TimingMetric(String name){
+		this.name = name;
+	}
+	
+	/**
+	 * Checks if this metric is a percentile of a distribution of durations.
+	 * @return True if this metric is a duration percentile.
+	 */
+	public boolean isPercentile(){
+		return this == HOLD || this == INTERVAL;
+	}
+	
+	@Override
+	public String toString(){
+		return name;
+	}
+}
@@ -44,6 +44,10 @@ public class CursorGraphSettings extends GraphPanelSettings{
 	 * The backlog for how much of the cursor move history to show in milliseconds.
 	 */
 	private final IntSetting backlog = new IntSetting("backlog", 0, Integer.MAX_VALUE, 1000);
+	/**
+	 * The minimum distance in pixels the cursor has to move before a new point is recorded.
+	 */
+	private final IntSetting threshold = new IntSetting("threshold", 1, Integer.MAX_VALUE, 1);
 
 	/**
 	 * Constructs new cursor graph settings.
@@ -92,6 +96,25 @@ public class CursorGraphSettings extends GraphPanelSettings{
 		this.backlog.update(backlog);
 	}
 	
+	/**
+	 * Gets the minimum distance in pixels the cursor has to move away
+	 * from the last recorded point before a new point is recorded.
+	 * @return The cursor move threshold in pixels.
+	 */
+	public int getThreshold(){
+		return threshold.getValue();
+	}
+	
+	/**
+	 * Sets the minimum distance in pixels the cursor has
+	 * to move before a new point is recorded.
+	 * @param threshold The new cursor move threshold in pixels.
+	 * @see #getThreshold()
+	 */
+	public void setThreshold(int threshold){
+		this.threshold.update(threshold);
+	}
+	
 	/**
 	 * Sets the ID of the display tracked by this panel.
 	 * @param idString The ID of the display being tracked.
@@ -112,7 +135,7 @@ public class CursorGraphSettings extends GraphPanelSettings{
 	
 	@Override
 	public boolean parse(Map<String, String> data){
-		return super.parse(data) | findAndParse(data, display, backlog);
+		return super.parse(data) | findAndParse(data, display, backlog) | findAndParseOptional(data, threshold);
 	}
 	
 	@Override
@@ -120,6 +143,7 @@ public class CursorGraphSettings extends GraphPanelSettings{
 		super.writeItems(out);
 		display.write(out);
 		backlog.write(out);
+		threshold.write(out);
 	}
 	
 	/**
@@ -134,7 +158,7 @@ public class CursorGraphSettings extends GraphPanelSettings{
 	 * Computes the default screen to use.
 	 * @return The identifier of the default screen to use or null for none.
 	 */
-	private static final String getDefaultScreenId(){
+	static final String getDefaultScreenId(){
 		//this check is primarily to ensure unit tests can run headless
 		return GraphicsEnvironment.isHeadless() ? null : getScreens()[0].getIDstring();
 	}
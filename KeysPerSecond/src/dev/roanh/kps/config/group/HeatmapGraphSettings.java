@@ -0,0 +1,149 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.config.group;
+
+import java.awt.GraphicsDevice;
+import java.util.Map;
+
+import dev.roanh.kps.config.GraphType;
+import dev.roanh.kps.config.IndentWriter;
+import dev.roanh.kps.config.setting.IntSetting;
+import dev.roanh.kps.config.setting.StringSetting;
+import dev.roanh.kps.panels.HeatmapGraphPanel;
+import dev.roanh.kps.ui.editor.Editor;
+import dev.roanh.kps.ui.editor.HeatmapGraphEditor;
+
+/**
+ * Configuration for cursor heatmap graph panels.
+ * @author Roan
+ * @see HeatmapGraphPanel
+ */
+public class HeatmapGraphSettings extends GraphPanelSettings{
+	/**
+	 * The display being tracked by this panel.
+	 */
+	private final StringSetting display = new StringSetting("display", CursorGraphSettings.getDefaultScreenId());
+	/**
+	 * The width and height in pixels of the screen area covered by a single heatmap cell.
+	 */
+	private final IntSetting cellSize = new IntSetting("cellSize", 1, 1024, 16);
+	/**
+	 * The weight of a single mouse click expressed in milliseconds of cursor dwell time.
+	 */
+	private final IntSetting clickWeight = new IntSetting("clickWeight", 0, Integer.MAX_VALUE, 500);
+
+	/**
+	 * Constructs new heatmap graph settings.
+	 */
+	public HeatmapGraphSettings(){
+		super(GraphType.HEATMAP, 0, -1, -1, 6, "Heatmap");
+	}
+	
+	/**
+	 * Gets the display being tracked by this panel.
+	 * @return The display tracked by this panel or
+	 *         null if the configured display could
+	 *         not be found on the system.
+	 */
+	public GraphicsDevice getDisplay(){
+		for(GraphicsDevice screen : CursorGraphSettings.getScreens()){
+			if(screen.getIDstring().equals(getDisplayId())){
+				return screen;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Gets the ID of the display being tracked by this panel.
+	 * @return The ID of the tracked display.
+	 */
+	public String getDisplayId(){
+		return display.getValue();
+	}
+	
+	/**
+	 * Sets the ID of the display tracked by this panel.
+	 * @param idString The ID of the display being tracked.
+	 */
+	public void setDisplay(String idString){
+		display.update(idString);
+	}
+	
+	/**
+	 * Gets the width and height in pixels of the screen area
+	 * that is covered by a single cell of the heatmap.
+	 * @return The heatmap cell size in pixels.
+	 */
+	public int getCellSize(){
+		return cellSize.getValue();
+	}
+	
+	/**
+	 * Sets the width and height in pixels of the screen
+	 * area covered by a single cell of the heatmap.
+	 * @param size The new heatmap cell size in pixels.
+	 */
+	public void setCellSize(int size){
+		cellSize.update(size);
+	}
+	
+	/**
+	 * Gets the weight a single mouse click adds to the heatmap cell
+	 * under the cursor, expressed in milliseconds of cursor dwell time.
+	 * A weight of 0 means that clicks are not tracked.
+	 * @return The weight of a mouse click.
+	 */
+	public int getClickWeight(){
+		return clickWeight.getValue();
+	}
+	
+	/**
+	 * Sets the weight a single mouse click adds to the heatmap.
+	 * @param weight The new weight of a mouse click.
+	 * @see #getClickWeight()
+	 */
+	public void setClickWeight(int weight){
+		clickWeight.update(weight);
+	}
+
+	@Override
+	public void showEditor(boolean live){
+		Editor.showEditor(new HeatmapGraphEditor(this, live));
+	}
+
+	@Override
+	public HeatmapGraphPanel createGraph(){
+		return new HeatmapGraphPanel(this);
+	}
+	
+	@Override
+	public boolean parse(Map<String, String> data){
+		return super.parse(data) | findAndParse(data, display, cellSize, clickWeight);
+	}
+	
+	@Override
+	public void writeItems(IndentWriter out){
+		super.writeItems(out);
+		display.write(out);
+		cellSize.write(out);
+		clickWeight.write(out);
+	}
+}
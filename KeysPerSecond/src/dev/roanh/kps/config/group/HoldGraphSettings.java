@@ -0,0 +1,87 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.config.group;
+
+import java.util.Map;
+
+import dev.roanh.kps.config.Configuration;
+import dev.roanh.kps.config.GraphType;
+import dev.roanh.kps.config.IndentWriter;
+import dev.roanh.kps.config.setting.IntSetting;
+import dev.roanh.kps.panels.HoldGraphPanel;
+import dev.roanh.kps.ui.editor.Editor;
+import dev.roanh.kps.ui.editor.HoldGraphEditor;
+
+/**
+ * Configuration for key hold duration graph panels. The graph
+ * only shows data while key timing is tracked.
+ * @author Roan
+ * @see HoldGraphPanel
+ * @see Configuration#isKeyTimingEnabled()
+ */
+public class HoldGraphSettings extends GraphPanelSettings{
+	/**
+	 * The hold duration percentile marked for each key.
+	 */
+	private final IntSetting percentile = new IntSetting("percentile", 1, 100, 99);
+
+	/**
+	 * Constructs new hold duration graph settings.
+	 */
+	public HoldGraphSettings(){
+		super(GraphType.HOLD, 0, -1, -1, 3, "Hold");
+	}
+	
+	/**
+	 * Gets the hold duration percentile marked for each key.
+	 * @return The marked hold duration percentile.
+	 */
+	public int getPercentile(){
+		return percentile.getValue();
+	}
+	
+	/**
+	 * Sets the hold duration percentile marked for each key.
+	 * @param percentile The new percentile to mark.
+	 */
+	public void setPercentile(int percentile){
+		this.percentile.update(percentile);
+	}
+
+	@Override
+	public void showEditor(boolean live){
+		Editor.showEditor(new HoldGraphEditor(this, live));
+	}
+
+	@Override
+	public HoldGraphPanel createGraph(){
+		return new HoldGraphPanel(this);
+	}
+	
+	@Override
+	public boolean parse(Map<String, String> data){
+		return super.parse(data) | findAndParse(data, percentile);
+	}
+	
+	@Override
+	public void writeItems(IndentWriter out){
+		super.writeItems(out);
+		percentile.write(out);
+	}
+}
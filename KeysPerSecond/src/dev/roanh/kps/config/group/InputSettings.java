@@ -0,0 +1,121 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.config.group;
+
+import java.util.Map;
+
+import dev.roanh.kps.config.IndentWriter;
+import dev.roanh.kps.config.SettingGroup;
+import dev.roanh.kps.config.setting.BooleanSetting;
+import dev.roanh.kps.config.setting.IntSetting;
+import dev.roanh.kps.event.EventManager;
+
+/**
+ * Settings related to how input events are handled.
+ * @author Roan
+ * @see EventManager
+ */
+public class InputSettings extends SettingGroup{
+	/**
+	 * Whether input events are dispatched on a dedicated thread.
+	 */
+	private final BooleanSetting asyncDispatch = new BooleanSetting("asyncDispatch", false);
+	/**
+	 * Whether consecutive mouse move events are coalesced during asynchronous dispatch.
+	 */
+	private final BooleanSetting coalesceMouseMoves = new BooleanSetting("coalesceMouseMoves", true);
+	/**
+	 * The time in milliseconds after a release in which a new press of the same key is suppressed.
+	 */
+	private final IntSetting debounce = new IntSetting("debounce", 0, 1000, 0);
+
+	/**
+	 * Constructs new input settings.
+	 */
+	public InputSettings(){
+		super("input");
+	}
+
+	/**
+	 * Checks if input events are dispatched to listeners on a dedicated
+	 * thread instead of on the thread of the native input hook.
+	 * @return True if asynchronous event dispatch is enabled.
+	 */
+	public boolean isAsyncDispatchEnabled(){
+		return asyncDispatch.getValue();
+	}
+
+	/**
+	 * Enables or disables asynchronous input event dispatch.
+	 * @param enabled True to enable asynchronous event dispatch.
+	 */
+	public void setAsyncDispatchEnabled(boolean enabled){
+		asyncDispatch.update(enabled);
+	}
+
+	/**
+	 * Checks if consecutive mouse move events are coalesced into
+	 * a single event when input events are dispatched asynchronously.
+	 * This setting has no effect unless asynchronous dispatch is
+	 * enabled, with synchronous dispatch every mouse move event is
+	 * passed to every listener.
+	 * @return True if mouse move coalescing is enabled.
+	 */
+	public boolean isCoalesceMouseMovesEnabled(){
+		return coalesceMouseMoves.getValue();
+	}
+
+	/**
+	 * Enables or disables mouse move event coalescing.
+	 * @param enabled True to enable mouse move coalescing.
+	 */
+	public void setCoalesceMouseMovesEnabled(boolean enabled){
+		coalesceMouseMoves.update(enabled);
+	}
+
+	/**
+	 * Gets the debounce time for keys and mouse buttons. A press that follows
+	 * the release of the same key or button within this time is suppressed.
+	 * @return The debounce time in milliseconds, 0 if debouncing is disabled.
+	 */
+	public int getDebounceTime(){
+		return debounce.getValue();
+	}
+
+	/**
+	 * Sets the debounce time for keys and mouse buttons.
+	 * @param millis The debounce time in milliseconds, 0 disables debouncing.
+	 * @see #getDebounceTime()
+	 */
+	public void setDebounceTime(int millis){
+		debounce.update(millis);
+	}
+
+	@Override
+	public boolean parse(Map<String, String> data){
+		return findAndParse(data, asyncDispatch, coalesceMouseMoves, debounce);
+	}
+
+	@Override
+	public void writeItems(IndentWriter out){
+		asyncDispatch.write(out);
+		coalesceMouseMoves.write(out);
+		debounce.write(out);
+	}
+}
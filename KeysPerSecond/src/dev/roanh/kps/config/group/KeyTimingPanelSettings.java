@@ -0,0 +1,132 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.config.group;
+
+import java.util.Map;
+
+import dev.roanh.kps.KeyTiming;
+import dev.roanh.kps.config.IndentWriter;
+import dev.roanh.kps.config.PanelType;
+import dev.roanh.kps.config.TimingMetric;
+import dev.roanh.kps.config.setting.IntSetting;
+import dev.roanh.kps.config.setting.TimingMetricSetting;
+import dev.roanh.kps.panels.KeyTimingPanel;
+import dev.roanh.kps.ui.editor.Editor;
+import dev.roanh.kps.ui.editor.KeyTimingPanelEditor;
+
+/**
+ * Settings for a panel showing a timing statistic of a single key.
+ * @author Roan
+ * @see KeyTimingPanel
+ * @see KeyTiming
+ */
+public class KeyTimingPanelSettings extends SpecialPanelSettings{
+	/**
+	 * The extended key code of the key to show the timing statistic of.
+	 */
+	private final IntSetting keycode = new IntSetting("keycode", Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+	/**
+	 * The timing statistic to show.
+	 */
+	private final TimingMetricSetting metric = new TimingMetricSetting("metric", TimingMetric.RATE);
+	/**
+	 * The percentile to show for metrics that are a distribution of durations.
+	 */
+	private final IntSetting percentile = new IntSetting("percentile", 1, 100, 50);
+
+	/**
+	 * Constructs new key timing panel settings.
+	 */
+	public KeyTimingPanelSettings(){
+		super(PanelType.TIMING, "TIME");
+	}
+	
+	/**
+	 * Gets the extended key code of the key to show the timing statistic of.
+	 * @return The extended key code of the key.
+	 */
+	public int getKeyCode(){
+		return keycode.getValue();
+	}
+	
+	/**
+	 * Sets the key to show the timing statistic of.
+	 * @param code The extended key code of the key.
+	 */
+	public void setKeyCode(int code){
+		keycode.update(code);
+	}
+	
+	/**
+	 * Gets the timing statistic shown by this panel.
+	 * @return The timing statistic shown.
+	 */
+	public TimingMetric getMetric(){
+		return metric.getValue();
+	}
+	
+	/**
+	 * Sets the timing statistic shown by this panel.
+	 * @param metric The timing statistic to show.
+	 */
+	public void setMetric(TimingMetric metric){
+		this.metric.update(metric);
+	}
+	
+	/**
+	 * Gets the percentile shown for timing statistics that are a distribution
+	 * of durations. For example, a percentile of 50 shows the median duration.
+	 * @return The percentile shown.
+	 * @see TimingMetric#isPercentile()
+	 */
+	public int getPercentile(){
+		return percentile.getValue();
+	}
+	
+	/**
+	 * Sets the percentile shown for timing statistics that are a distribution of durations.
+	 * @param percentile The percentile to show.
+	 */
+	public void setPercentile(int percentile){
+		this.percentile.update(percentile);
+	}
+	
+	@Override
+	public boolean parse(Map<String, String> data){
+		return super.parse(data) | findAndParse(data, keycode, metric, percentile);
+	}
+	
+	@Override
+	public void writeItems(IndentWriter out){
+		super.writeItems(out);
+		keycode.write(out);
+		metric.write(out);
+		percentile.write(out);
+	}
+
+	@Override
+	public void showEditor(boolean live){
+		Editor.showEditor(new KeyTimingPanelEditor(this, live));
+	}
+
+	@Override
+	public KeyTimingPanel createPanel(){
+		return new KeyTimingPanel(this);
+	}
+}
@@ -51,6 +51,10 @@ public class LineGraphSettings extends GraphPanelSettings implements LegacyProxy
 	 * Maximum graph y value that will be displayed. Any higher values are capped at this value.
 	 */
 	private final IntSetting max = new IntSetting("max", 1, Integer.MAX_VALUE, Integer.MAX_VALUE);
+	/**
+	 * Percentage the maximum of the backlog has to drop below the current graph scale before the graph scales down.
+	 */
+	private final IntSetting hysteresis = new IntSetting("hysteresis", 0, 100, 0);
 
 	/**
 	 * Creates new graph settings.
@@ -110,6 +114,27 @@ public class LineGraphSettings extends GraphPanelSettings implements LegacyProxy
 		this.backlog.update(backlog);
 	}
 	
+	/**
+	 * Gets the scale hysteresis for the graph. The graph always scales up to
+	 * the highest value in its backlog, but it only scales down once the highest
+	 * value in the backlog is at least this percentage below the current scale.
+	 * A value of 0 means the graph always exactly fits the backlog, a value of 100
+	 * means the graph never scales down.
+	 * @return The scale hysteresis as a percentage.
+	 */
+	public int getHysteresis(){
+		return hysteresis.getValue();
+	}
+	
+	/**
+	 * Sets the scale hysteresis for the graph.
+	 * @param hysteresis The new scale hysteresis as a percentage.
+	 * @see #getHysteresis()
+	 */
+	public void setHysteresis(int hysteresis){
+		this.hysteresis.update(hysteresis);
+	}
+	
 	@Override
 	public LineGraphPanel createGraph(){
 		return new LineGraphPanel(this);
@@ -122,7 +147,7 @@ public class LineGraphSettings extends GraphPanelSettings implements LegacyProxy
 
 	@Override
 	public boolean parse(Map<String, String> data){
-		return super.parse(data) | findAndParse(data, showAvg, backlog, max);
+		return super.parse(data) | findAndParse(data, showAvg, backlog, max) | findAndParseOptional(data, hysteresis);
 	}
 	
 	@Override
@@ -131,6 +156,7 @@ public class LineGraphSettings extends GraphPanelSettings implements LegacyProxy
 		showAvg.write(out);
 		backlog.write(out);
 		max.write(out);
+		hysteresis.write(out);
 	}
 	
 	@Override
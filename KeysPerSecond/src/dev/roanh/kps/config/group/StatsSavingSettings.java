@@ -68,6 +68,14 @@ public class StatsSavingSettings extends SettingGroup implements LegacyProxyStor
 	 * The file to save/load statistics to/from on exit/launch.
 	 */
 	private final PathSetting saveFile = new PathSetting("saveFile", Objects.toString(System.getProperty("user.home"), "") + File.separator + "stats.kpsstats");
+	/**
+	 * Whether statistics are continuously written to a journal next to the save file.
+	 */
+	private final BooleanSetting journal = new BooleanSetting("journal", false);
+	/**
+	 * The interval in milliseconds at which changes are committed to the journal.
+	 */
+	private final LongSetting journalInterval = new LongSetting("journalInterval", 10, Long.MAX_VALUE, 1000);
 
 	/**
 	 * Constructs new stats saving settings.
@@ -137,6 +145,27 @@ public class StatsSavingSettings extends SettingGroup implements LegacyProxyStor
 		return saveFile.getValue();
 	}
 	
+	/**
+	 * Checks if statistics are continuously written to a journal. The
+	 * journal is stored next to the save file and is used instead of the
+	 * save file on launch if it is more recent.
+	 * @return True if the statistics journal is enabled.
+	 * @see #getSaveFile()
+	 * @see #getJournalInterval()
+	 */
+	public boolean isJournalEnabled(){
+		return journal.getValue();
+	}
+	
+	/**
+	 * Gets the interval at which changes are committed to the statistics journal.
+	 * @return The journal commit interval in milliseconds.
+	 * @see #isJournalEnabled()
+	 */
+	public long getJournalInterval(){
+		return journalInterval.getValue();
+	}
+	
 	/**
 	 * Enables or disables periodic stats saving.
 	 * @param enabled True to enable stats saving.
@@ -192,10 +221,26 @@ public class StatsSavingSettings extends SettingGroup implements LegacyProxyStor
 	public void setSaveFile(String file){
 		saveFile.update(file);
 	}
+	
+	/**
+	 * Enables or disables the statistics journal.
+	 * @param enabled True to enable the statistics journal.
+	 */
+	public void setJournalEnabled(boolean enabled){
+		journal.update(enabled);
+	}
+	
+	/**
+	 * Sets the interval at which changes are committed to the statistics journal.
+	 * @param millis The journal commit interval in milliseconds.
+	 */
+	public void setJournalInterval(long millis){
+		journalInterval.update(millis);
+	}
 
 	@Override
 	public boolean parse(Map<String, String> data){
-		return findAndParse(data, autoSave, autoDestination, autoFormat, autoInterval, saveOnExit, loadOnLaunch, saveFile);
+		return findAndParse(data, autoSave, autoDestination, autoFormat, autoInterval, saveOnExit, loadOnLaunch, saveFile) | findAndParseOptional(data, journal, journalInterval);
 	}
 	
 	@Override
@@ -207,6 +252,8 @@ public class StatsSavingSettings extends SettingGroup implements LegacyProxyStor
 		saveOnExit.write(out);
 		loadOnLaunch.write(out);
 		saveFile.write(out);
+		journal.write(out);
+		journalInterval.write(out);
 	}
 
 	@Override
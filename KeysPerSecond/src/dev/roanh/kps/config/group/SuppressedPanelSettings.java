@@ -0,0 +1,49 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.config.group;
+
+import dev.roanh.kps.config.PanelType;
+import dev.roanh.kps.panels.SuppressedPanel;
+import dev.roanh.kps.ui.editor.DataPanelEditor;
+import dev.roanh.kps.ui.editor.Editor;
+
+/**
+ * Configuration for a panel showing the number of presses suppressed as chatter.
+ * @author Roan
+ * @see SuppressedPanel
+ */
+public class SuppressedPanelSettings extends SpecialPanelSettings{
+
+	/**
+	 * Constructs new suppressed panel settings.
+	 */
+	public SuppressedPanelSettings(){
+		super(PanelType.SUPPRESSED, "BNC");
+	}
+
+	@Override
+	public SuppressedPanel createPanel(){
+		return new SuppressedPanel(this);
+	}
+	
+	@Override
+	public void showEditor(boolean live){
+		Editor.showEditor(new DataPanelEditor(this, live));
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.event;
+
+/**
+ * Filter that suppresses chatter from worn switches. A press that follows
+ * the previous release of the same key or button within the debounce window
+ * is suppressed together with its matching release. Suppressed releases also
+ * restart the window, so a burst of bounces is suppressed as a whole. State is
+ * kept in primitive arrays indexed by key code that are allocated in pages of
+ * {@value #PAGE_SIZE} codes on first use, so filtering never allocates once a
+ * code has been seen. Only a single thread may filter events, other threads
+ * may change the window and read the number of suppressed presses.
+ * @author Roan
+ */
+public class DebounceFilter{
+	/**
+	 * Number of bits of a code used to index within a page.
+	 */
+	private static final int PAGE_BITS = 8;
+	/**
+	 * Number of codes in a single page.
+	 */
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	/**
+	 * Exclusive upper bound of the codes that can be filtered, presses and
+	 * releases of codes outside the range from 0 to this bound always pass.
+	 */
+	private static final int MAX_CODE = 1 << 16;
+	/**
+	 * Time of the last release of each code.
+	 */
+	private final long[][] releases = new long[MAX_CODE >> PAGE_BITS][];
+	/**
+	 * Whether a release was recorded for each code.
+	 */
+	private final boolean[][] released = new boolean[MAX_CODE >> PAGE_BITS][];
+	/**
+	 * Whether the last press of each code was suppressed.
+	 */
+	private final boolean[][] suppressed = new boolean[MAX_CODE >> PAGE_BITS][];
+	/**
+	 * The debounce window in nanoseconds, 0 if the filter is disabled.
+	 */
+	private volatile long window = 0L;
+	/**
+	 * The total number of suppressed presses.
+	 */
+	private volatile long count = 0L;
+	
+	/**
+	 * Sets the debounce window.
+	 * @param nanos The debounce window in nanoseconds,
+	 *        0 disables the filter.
+	 */
+	public void setWindow(long nanos){
+		window = Math.max(0L, nanos);
+	}
+	
+	/**
+	 * Gets the debounce window.
+	 * @return The debounce window in nanoseconds.
+	 */
+	public long getWindow(){
+		return window;
+	}
+	
+	/**
+	 * Gets the total number of presses suppressed by this filter.
+	 * @return The number of suppressed presses.
+	 */
+	public long getSuppressedCount(){
+		return count;
+	}
+	
+	/**
+	 * Filters a press of the given code.
+	 * @param code The key code or button ID that was pressed.
+	 * @param time The nanosecond time stamp of the press.
+	 * @return True if the press should be dispatched,
+	 *         false if it was suppressed.
+	 */
+	public boolean press(int code, long time){
+		long span = window;
+		if(span == 0L || code < 0 || code >= MAX_CODE){
+			return true;
+		}
+		
+		int page = code >>> PAGE_BITS;
+		if(releases[page] == null){
+			releases[page] = new long[PAGE_SIZE];
+			released[page] = new boolean[PAGE_SIZE];
+			suppressed[page] = new boolean[PAGE_SIZE];
+		}
+		
+		int idx = code & (PAGE_SIZE - 1);
+		if(released[page][idx] && time - releases[page][idx] < span){
+			suppressed[page][idx] = true;
+			count++;
+			return false;
+		}
+		
+		//a later press that passes, such as a key repeat, owns the next release
+		suppressed[page][idx] = false;
+		return true;
+	}
+	
+	/**
+	 * Filters a release of the given code.
+	 * @param code The key code or button ID that was released.
+	 * @param time The nanosecond time stamp of the release.
+	 * @return True if the release should be dispatched, false
+	 *         if it belongs to a suppressed press.
+	 */
+	public boolean release(int code, long time){
+		if(code < 0 || code >= MAX_CODE){
+			return true;
+		}
+		
+		int page = code >>> PAGE_BITS;
+		if(releases[page] == null){
+			return true;
+		}
+		
+		int idx = code & (PAGE_SIZE - 1);
+		releases[page][idx] = time;
+		released[page][idx] = true;
+		if(suppressed[page][idx]){
+			suppressed[page][idx] = false;
+			return false;
+		}
+		
+		return true;
+	}
+}
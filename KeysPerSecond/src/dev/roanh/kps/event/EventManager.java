@@ -21,18 +21,35 @@ package dev.roanh.kps.event;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import dev.roanh.kps.event.listener.ButtonPressListener;
 import dev.roanh.kps.event.listener.ButtonReleaseListener;
 import dev.roanh.kps.event.listener.KeyPressListener;
 import dev.roanh.kps.event.listener.KeyReleaseListener;
 import dev.roanh.kps.event.listener.MouseMoveListener;
+import dev.roanh.kps.event.listener.MousePathListener;
 
 /**
- * Class responsible for managing input events.
+ * Class responsible for managing input events. By default events are
+ * forwarded to listeners on the thread of the input source that reported
+ * them. When asynchronous dispatch is enabled input sources only publish
+ * events to a queue and a dedicated thread forwards them to listeners.
+ * In this mode consecutive mouse move events in a single dispatch batch
+ * can be coalesced so that listeners only see the most recent position.
+ * Key and button events can also be debounced before they are dispatched.
  * @author Roan
  */
 public class EventManager{
+	/**
+	 * Maximum number of events buffered for asynchronous dispatch.
+	 */
+	private static final int QUEUE_CAPACITY = 4096;
+	/**
+	 * Maximum number of events forwarded to listeners in a single batch.
+	 */
+	private static final int BATCH_SIZE = 256;
 	/**
 	 * List of registered key press listeners.
 	 */
@@ -53,10 +70,145 @@ public class EventManager{
 	 * List of registered mouse move listeners.
 	 */
 	private List<MouseMoveListener> mouseMoveListeners = new CopyOnWriteArrayList<MouseMoveListener>();
+	/**
+	 * List of registered mouse path listeners.
+	 */
+	private List<MousePathListener> mousePathListeners = new CopyOnWriteArrayList<MousePathListener>();
+	/**
+	 * List of registered mouse path listeners that receive every move event, even when coalescing.
+	 */
+	private List<MousePathListener> mouseSampleListeners = new CopyOnWriteArrayList<MousePathListener>();
 	/**
 	 * List of input sources providing input to this event manager.
 	 */
 	private List<InputSource> sources = new ArrayList<InputSource>();
+	/**
+	 * Filter suppressing key chatter.
+	 */
+	private final DebounceFilter keyFilter = new DebounceFilter();
+	/**
+	 * Filter suppressing mouse button chatter.
+	 */
+	private final DebounceFilter buttonFilter = new DebounceFilter();
+	/**
+	 * The active asynchronous dispatcher or null if events are dispatched synchronously.
+	 */
+	private volatile Dispatcher dispatcher = null;
+	/**
+	 * Nanosecond time stamp of the event currently being dispatched.
+	 */
+	private long eventTime = System.nanoTime();
+	/**
+	 * Whether consecutive mouse move events are coalesced during asynchronous dispatch.
+	 */
+	private volatile boolean coalesceMoves = false;
+	/**
+	 * Whether the last dispatched cursor position is known.
+	 */
+	private boolean hasLastMove = false;
+	/**
+	 * The x coordinate of the last dispatched cursor position.
+	 */
+	private int lastMoveX;
+	/**
+	 * The y coordinate of the last dispatched cursor position.
+	 */
+	private int lastMoveY;
+	
+	/**
+	 * Enables or disables asynchronous event dispatch. When enabled input
+	 * sources only publish events to a queue and listeners are invoked
+	 * on a dedicated dispatch thread instead of the input source thread.
+	 * @param async True to enable asynchronous event dispatch.
+	 */
+	public synchronized void setAsyncDispatch(boolean async){
+		Dispatcher current = dispatcher;
+		if(async && current == null){
+			current = new Dispatcher();
+			dispatcher = current;
+			current.start();
+		}else if(!async && current != null){
+			dispatcher = null;
+			current.shutdown();
+		}
+	}
+	
+	/**
+	 * Checks if events are dispatched asynchronously.
+	 * @return True if events are dispatched on a dedicated thread.
+	 * @see #setAsyncDispatch(boolean)
+	 */
+	public boolean isAsyncDispatch(){
+		return dispatcher != null;
+	}
+	
+	/**
+	 * Enables or disables coalescing of mouse move events. When enabled
+	 * all consecutive mouse move events that are dispatched in the same
+	 * asynchronous dispatch batch are combined into a single event with
+	 * the most recent cursor position. Path listeners registered to receive
+	 * every sample through {@link #registerMousePathListener(MousePathListener, boolean)}
+	 * still receive every event. Coalescing only happens while asynchronous
+	 * dispatch is enabled, with synchronous dispatch (the default) every
+	 * event from the input source is passed to every listener.
+	 * @param coalesce True to enable mouse move coalescing.
+	 * @see #setAsyncDispatch(boolean)
+	 */
+	public void setCoalesceMouseMoves(boolean coalesce){
+		coalesceMoves = coalesce;
+	}
+	
+	/**
+	 * Checks if mouse move events are coalesced during asynchronous dispatch.
+	 * @return True if mouse move events are coalesced.
+	 * @see #setCoalesceMouseMoves(boolean)
+	 */
+	public boolean isCoalesceMouseMoves(){
+		return coalesceMoves;
+	}
+	
+	/**
+	 * Sets the debounce time for key and mouse button events. A press that
+	 * follows the release of the same key or button within the debounce time
+	 * is considered chatter and is not forwarded to any listener, neither is
+	 * its matching release. Filtering happens on the input source thread
+	 * before events are dispatched or queued.
+	 * @param millis The debounce time in milliseconds, 0 disables debouncing.
+	 * @see DebounceFilter
+	 */
+	public void setDebounceTime(int millis){
+		keyFilter.setWindow(millis * 1000000L);
+		buttonFilter.setWindow(millis * 1000000L);
+	}
+	
+	/**
+	 * Gets the debounce time for key and mouse button events.
+	 * @return The debounce time in milliseconds, 0 if debouncing is disabled.
+	 * @see #setDebounceTime(int)
+	 */
+	public int getDebounceTime(){
+		return (int)(keyFilter.getWindow() / 1000000L);
+	}
+	
+	/**
+	 * Gets the total number of key and mouse button
+	 * presses that were suppressed as chatter.
+	 * @return The number of suppressed presses.
+	 * @see #setDebounceTime(int)
+	 */
+	public long getSuppressedCount(){
+		return keyFilter.getSuppressedCount() + buttonFilter.getSuppressedCount();
+	}
+	
+	/**
+	 * Gets the nanosecond time stamp at which the event currently being
+	 * dispatched was received. Only meaningful when called from a listener.
+	 * @return The time stamp of the event being dispatched.
+	 * @see System#nanoTime()
+	 */
+	public long getEventTime(){
+		return eventTime;
+	}
 	
 	/**
 	 * Registers a new key press listener to this manager.
@@ -98,13 +250,48 @@ public class EventManager{
 		mouseMoveListeners.add(listener);
 	}
 	
+	/**
+	 * Registers a new mouse path listener to this manager.
+	 * @param listener The listener to register.
+	 */
+	public void registerMousePathListener(MousePathListener listener){
+		registerMousePathListener(listener, false);
+	}
+	
+	/**
+	 * Registers a new mouse path listener to this manager. A listener that
+	 * receives every sample is called for each individual mouse move event
+	 * with a count of 1 and the distance from the previous cursor position,
+	 * even if mouse move events are being coalesced for other listeners.
+	 * Only when the asynchronous dispatch queue overflows are the mouse move
+	 * events that did not fit passed as a single event with their total count
+	 * and distance, no mouse move event is ever dropped.
+	 * @param listener The listener to register.
+	 * @param everySample True if the listener should receive every mouse
+	 *        move event instead of coalesced mouse move events.
+	 * @see #setCoalesceMouseMoves(boolean)
+	 */
+	public void registerMousePathListener(MousePathListener listener, boolean everySample){
+		if(everySample){
+			mouseSampleListeners.add(listener);
+		}else{
+			mousePathListeners.add(listener);
+		}
+	}
+	
 	/**
 	 * Fires a new press event for the key with the given key code.
 	 * @param code The key code of the key that was pressed.
 	 */
 	public void fireKeyPressEvent(int code){
-		for(KeyPressListener listener : keyPressListeners){
-			listener.onKeyPress(code);
+		long time = System.nanoTime();
+		if(!keyFilter.press(code, time)){
+			return;
+		}
+		
+		if(!publish(EventQueue.KEY_PRESS, code, 0, 0, time)){
+			eventTime = time;
+			dispatchKeyPressEvent(code);
 		}
 	}
 	
@@ -113,8 +300,14 @@ public class EventManager{
 	 * @param code The key code of the key that was release.
 	 */
 	public void fireKeyReleaseEvent(int code){
-		for(KeyReleaseListener listener : keyReleaseListeners){
-			listener.onKeyRelease(code);
+		long time = System.nanoTime();
+		if(!keyFilter.release(code, time)){
+			return;
+		}
+		
+		if(!publish(EventQueue.KEY_RELEASE, code, 0, 0, time)){
+			eventTime = time;
+			dispatchKeyReleaseEvent(code);
 		}
 	}
 	
@@ -123,8 +316,14 @@ public class EventManager{
 	 * @param button The ID of the button that was released.
 	 */
 	public void fireButtonReleaseEvent(int button){
-		for(ButtonReleaseListener listener : buttonReleaseListeners){
-			listener.onButtonRelease(button);
+		long time = System.nanoTime();
+		if(!buttonFilter.release(button, time)){
+			return;
+		}
+		
+		if(!publish(EventQueue.BUTTON_RELEASE, button, 0, 0, time)){
+			eventTime = time;
+			dispatchButtonReleaseEvent(button);
 		}
 	}
 
@@ -133,8 +332,14 @@ public class EventManager{
 	 * @param button The ID of the button that was pressed.
 	 */
 	public void fireButtonPressEvent(int button){
-		for(ButtonPressListener listener : buttonPressListeners){
-			listener.onButtonPress(button);
+		long time = System.nanoTime();
+		if(!buttonFilter.press(button, time)){
+			return;
+		}
+		
+		if(!publish(EventQueue.BUTTON_PRESS, button, 0, 0, time)){
+			eventTime = time;
+			dispatchButtonPressEvent(button);
 		}
 	}
 	
@@ -144,9 +349,164 @@ public class EventManager{
 	 * @param y The y coordinate the cursor moved to.
 	 */
 	public void fireMouseMoveEvent(int x, int y){
+		long time = System.nanoTime();
+		if(!publish(EventQueue.MOUSE_MOVE, 0, x, y, time)){
+			eventTime = time;
+			double dist = moveDistance(x, y);
+			dispatchMouseSampleEvent(x, y, 1, dist);
+			dispatchMouseMoveEvent(x, y, 1, dist);
+		}
+	}
+	
+	/**
+	 * Publishes an event to the asynchronous dispatcher if asynchronous
+	 * dispatch is enabled. If the dispatcher is being shut down the event
+	 * is not published and this method waits for the dispatcher to finish
+	 * all events published before, so the caller can dispatch the event
+	 * synchronously without changing the event order.
+	 * @param type The event type.
+	 * @param code The key code or button ID of the event.
+	 * @param x The cursor x coordinate of the event.
+	 * @param y The cursor y coordinate of the event.
+	 * @param time The nanosecond time stamp of the event.
+	 * @return True if the event was published, false if
+	 *         the caller has to dispatch the event itself.
+	 */
+	private boolean publish(int type, int code, int x, int y, long time){
+		Dispatcher async = dispatcher;
+		if(async == null){
+			return false;
+		}
+		
+		if(async.publish(type, code, x, y, time)){
+			return true;
+		}
+		
+		async.awaitTermination();
+		return false;
+	}
+	
+	/**
+	 * Forwards a key press event to all registered listeners.
+	 * @param code The key code of the key that was pressed.
+	 */
+	private void dispatchKeyPressEvent(int code){
+		for(KeyPressListener listener : keyPressListeners){
+			listener.onKeyPress(code);
+		}
+	}
+	
+	/**
+	 * Forwards a key release event to all registered listeners.
+	 * @param code The key code of the key that was released.
+	 */
+	private void dispatchKeyReleaseEvent(int code){
+		for(KeyReleaseListener listener : keyReleaseListeners){
+			listener.onKeyRelease(code);
+		}
+	}
+	
+	/**
+	 * Forwards a button release event to all registered listeners.
+	 * @param button The ID of the button that was released.
+	 */
+	private void dispatchButtonReleaseEvent(int button){
+		for(ButtonReleaseListener listener : buttonReleaseListeners){
+			listener.onButtonRelease(button);
+		}
+	}
+	
+	/**
+	 * Forwards a button press event to all registered listeners.
+	 * @param button The ID of the button that was pressed.
+	 */
+	private void dispatchButtonPressEvent(int button){
+		for(ButtonPressListener listener : buttonPressListeners){
+			listener.onButtonPress(button);
+		}
+	}
+	
+	/**
+	 * Forwards a (coalesced) mouse move event to all regular mouse
+	 * move listeners and all mouse path listeners.
+	 * @param x The x coordinate the cursor moved to.
+	 * @param y The y coordinate the cursor moved to.
+	 * @param count The number of mouse move events that were combined.
+	 * @param length The total distance in pixels the cursor travelled.
+	 */
+	private void dispatchMouseMoveEvent(int x, int y, int count, double length){
 		for(MouseMoveListener listener : mouseMoveListeners){
 			listener.onMouseMove(x, y);
 		}
+		
+		for(MousePathListener listener : mousePathListeners){
+			listener.onMouseMove(x, y, count, length);
+		}
+	}
+	
+	/**
+	 * Forwards mouse move events to all mouse path
+	 * listeners that receive every sample.
+	 * @param x The x coordinate the cursor moved to.
+	 * @param y The y coordinate the cursor moved to.
+	 * @param count The number of mouse move events.
+	 * @param length The distance in pixels the cursor travelled.
+	 */
+	private void dispatchMouseSampleEvent(int x, int y, int count, double length){
+		for(MousePathListener listener : mouseSampleListeners){
+			listener.onMouseMove(x, y, count, length);
+		}
+	}
+	
+	/**
+	 * Computes the distance between the given cursor position and the
+	 * last dispatched cursor position and records the given position
+	 * as the new last position. Only called on the dispatching thread.
+	 * @param x The x coordinate the cursor moved to.
+	 * @param y The y coordinate the cursor moved to.
+	 * @return The distance the cursor moved in pixels.
+	 */
+	private double moveDistance(int x, int y){
+		double dist = hasLastMove ? Math.hypot(x - lastMoveX, y - lastMoveY) : 0.0D;
+		hasLastMove = true;
+		lastMoveX = x;
+		lastMoveY = y;
+		return dist;
+	}
+	
+	/**
+	 * Forwards a single event drained from the asynchronous
+	 * dispatch queue to all relevant listeners.
+	 * @param type The event type.
+	 * @param code The key code or button ID of the event.
+	 * @param x The cursor x coordinate of the event.
+	 * @param y The cursor y coordinate of the event.
+	 * @param time The nanosecond time stamp of the event.
+	 * @see EventQueue
+	 */
+	private void dispatchQueuedEvent(int type, int code, int x, int y, long time){
+		eventTime = time;
+		switch(type){
+		case EventQueue.KEY_PRESS:
+			dispatchKeyPressEvent(code);
+			break;
+		case EventQueue.KEY_RELEASE:
+			dispatchKeyReleaseEvent(code);
+			break;
+		case EventQueue.BUTTON_PRESS:
+			dispatchButtonPressEvent(code);
+			break;
+		case EventQueue.BUTTON_RELEASE:
+			dispatchButtonReleaseEvent(code);
+			break;
+		case EventQueue.MOUSE_MOVE:
+			double dist = moveDistance(x, y);
+			dispatchMouseSampleEvent(x, y, 1, dist);
+			dispatchMouseMoveEvent(x, y, 1, dist);
+			break;
+		default:
+			break;
+		}
 	}
 
 	/**
@@ -196,4 +556,318 @@ public class EventManager{
 	public void deregisterMouseMoveListener(MouseMoveListener listener){
 		mouseMoveListeners.remove(listener);
 	}
+	
+	/**
+	 * Deregisters a mouse path listener from this manager.
+	 * @param listener The listener to deregister.
+	 */
+	public void deregisterMousePathListener(MousePathListener listener){
+		mousePathListeners.remove(listener);
+		mouseSampleListeners.remove(listener);
+	}
+	
+	/**
+	 * Thread that drains the asynchronous event queue and
+	 * forwards the drained events to all registered listeners.
+	 * @author Roan
+	 */
+	private final class Dispatcher extends Thread implements EventQueue.EventHandler{
+		/**
+		 * Queue input sources publish events to.
+		 */
+		private final EventQueue queue = new EventQueue(QUEUE_CAPACITY);
+		/**
+		 * Whether this dispatcher should keep running.
+		 */
+		private volatile boolean running = true;
+		/**
+		 * Whether this dispatcher is (about to be) parked waiting for events.
+		 */
+		private volatile boolean waiting = false;
+		/**
+		 * Number of threads currently publishing an event to this dispatcher.
+		 */
+		private final AtomicInteger publishers = new AtomicInteger();
+		/**
+		 * Number of mouse move events coalesced in the current batch.
+		 */
+		private int moveCount = 0;
+		/**
+		 * Total cursor distance of the mouse move events coalesced in the current batch.
+		 */
+		private double moveLength = 0.0D;
+		/**
+		 * The x coordinate of the most recent coalesced mouse move event.
+		 */
+		private int moveX;
+		/**
+		 * The y coordinate of the most recent coalesced mouse move event.
+		 */
+		private int moveY;
+		/**
+		 * The time stamp of the most recent coalesced mouse move event.
+		 */
+		private long moveTime;
+		/**
+		 * Whether mouse move events that did not fit in the queue
+		 * are waiting to be dispatched as a single path event.
+		 */
+		private volatile boolean pathPending = false;
+		/**
+		 * Lock guarding the mouse move events folded into the pending path.
+		 */
+		private final Object pathLock = new Object();
+		/**
+		 * Number of mouse move events folded into the pending path.
+		 */
+		private int pathCount;
+		/**
+		 * Total cursor distance of the mouse move events folded into the pending path.
+		 */
+		private double pathLength;
+		/**
+		 * The x coordinate of the most recent mouse move event in the pending path.
+		 */
+		private int pathX;
+		/**
+		 * The y coordinate of the most recent mouse move event in the pending path.
+		 */
+		private int pathY;
+		/**
+		 * The time stamp of the most recent mouse move event in the pending path.
+		 */
+		private long pathTime;
+		/**
+		 * Whether the input source published a mouse move event before.
+		 */
+		private boolean hasLastPublished = false;
+		/**
+		 * The x coordinate of the last mouse move event published by the input source.
+		 */
+		private int lastPublishedX;
+		/**
+		 * The y coordinate of the last mouse move event published by the input source.
+		 */
+		private int lastPublishedY;
+		
+		/**
+		 * Constructs a new dispatcher thread.
+		 */
+		private Dispatcher(){
+			super("KeysPerSecond Event Dispatcher");
+			setDaemon(true);
+		}
+		
+		/**
+		 * Publishes a new event to this dispatcher, only called from the input
+		 * source thread. Mouse move events that do not fit in the queue are folded
+		 * into a pending path that is dispatched once the dispatcher has caught up,
+		 * all other events wait for space to become available. Events are only
+		 * published while this dispatcher is running, every event published is
+		 * dispatched.
+		 * @param type The event type.
+		 * @param code The key code or button ID of the event.
+		 * @param x The cursor x coordinate of the event.
+		 * @param y The cursor y coordinate of the event.
+		 * @param time The nanosecond time stamp of the event.
+		 * @return True if the event was published or folded, false
+		 *         if this dispatcher no longer accepts events.
+		 */
+		private boolean publish(int type, int code, int x, int y, long time){
+			//announce the publish before checking the state, see run()
+			publishers.incrementAndGet();
+			try{
+				if(!running){
+					return false;
+				}
+				
+				if(type == EventQueue.MOUSE_MOVE){
+					double dist = hasLastPublished ? Math.hypot(x - lastPublishedX, y - lastPublishedY) : 0.0D;
+					hasLastPublished = true;
+					lastPublishedX = x;
+					lastPublishedY = y;
+					
+					//once moves are folded all later moves have to be folded as well
+					if(pathPending || !queue.publish(type, code, x, y, time)){
+						foldMove(x, y, dist, time);
+					}
+				}else{
+					//folded moves have to be seen before this event
+					while(pathPending){
+						Thread.yield();
+					}
+					
+					while(!queue.publish(type, code, x, y, time)){
+						Thread.yield();
+					}
+				}
+				
+				if(waiting){
+					LockSupport.unpark(this);
+				}
+				
+				return true;
+			}finally{
+				publishers.decrementAndGet();
+			}
+		}
+		
+		/**
+		 * Folds a mouse move event that did not fit in the queue into the
+		 * pending path, only called from the input source thread.
+		 * @param x The x coordinate the cursor moved to.
+		 * @param y The y coordinate the cursor moved to.
+		 * @param length The distance in pixels the cursor travelled.
+		 * @param time The nanosecond time stamp of the event.
+		 */
+		private void foldMove(int x, int y, double length, long time){
+			synchronized(pathLock){
+				if(!pathPending){
+					pathCount = 0;
+					pathLength = 0.0D;
+				}
+				
+				pathCount++;
+				pathLength += length;
+				pathX = x;
+				pathY = y;
+				pathTime = time;
+				pathPending = true;
+			}
+		}
+		
+		/**
+		 * Stops this dispatcher after all remaining events have been forwarded.
+		 */
+		private void shutdown(){
+			running = false;
+			LockSupport.unpark(this);
+			awaitTermination();
+		}
+		
+		/**
+		 * Waits for this dispatcher to forward all remaining events and stop.
+		 * Returns immediately when called from a listener on this dispatcher.
+		 */
+		private void awaitTermination(){
+			if(Thread.currentThread() != this){
+				try{
+					join();
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		
+		@Override
+		public void run(){
+			while(running || !queue.isEmpty() || pathPending){
+				if(!dispatchPending()){
+					waiting = true;
+					if(running && queue.isEmpty() && !pathPending){
+						LockSupport.park(this);
+					}
+					waiting = false;
+				}
+			}
+			
+			//a publisher that saw this dispatcher running may still be writing its event
+			while(publishers.get() != 0 || !queue.isEmpty() || pathPending){
+				if(!dispatchPending()){
+					Thread.yield();
+				}
+			}
+		}
+		
+		/**
+		 * Forwards the next batch of queued events, or the pending
+		 * path once all events queued before it have been forwarded.
+		 * @return True if any events were forwarded.
+		 */
+		private boolean dispatchPending(){
+			if(queue.drain(this, BATCH_SIZE) != 0){
+				flushMoves();
+				return true;
+			}
+			
+			//the pending flag has to be read first, nothing is queued after it was set
+			if(pathPending && queue.isEmpty()){
+				dispatchPath();
+				return true;
+			}
+			
+			return false;
+		}
+		
+		/**
+		 * Forwards all mouse move events folded into the pending path as a single event.
+		 */
+		private void dispatchPath(){
+			int count;
+			double length;
+			int x;
+			int y;
+			synchronized(pathLock){
+				count = pathCount;
+				length = pathLength;
+				x = pathX;
+				y = pathY;
+				eventTime = pathTime;
+				pathPending = false;
+			}
+			
+			try{
+				moveDistance(x, y);
+				dispatchMouseSampleEvent(x, y, count, length);
+				dispatchMouseMoveEvent(x, y, count, length);
+			}catch(RuntimeException e){
+				e.printStackTrace();
+			}
+		}
+
+		/**
+		 * Forwards the mouse move events coalesced so far (if any) as a single event.
+		 */
+		private void flushMoves(){
+			if(moveCount != 0){
+				int count = moveCount;
+				moveCount = 0;
+				eventTime = moveTime;
+				
+				try{
+					dispatchMouseMoveEvent(moveX, moveY, count, moveLength);
+				}catch(RuntimeException e){
+					e.printStackTrace();
+				}
+			}
+		}
+
+		@Override
+		public void handle(int type, int code, int x, int y, long time){
+			try{
+				if(type == EventQueue.MOUSE_MOVE && coalesceMoves){
+					eventTime = time;
+					double dist = moveDistance(x, y);
+					dispatchMouseSampleEvent(x, y, 1, dist);
+					
+					if(moveCount == 0){
+						moveLength = 0.0D;
+					}
+					
+					moveCount++;
+					moveLength += dist;
+					moveX = x;
+					moveY = y;
+					moveTime = time;
+				}else{
+					//moves have to be seen before any later event
+					flushMoves();
+					dispatchQueuedEvent(type, code, x, y, time);
+				}
+			}catch(RuntimeException e){
+				//a faulty listener should never stop input handling
+				e.printStackTrace();
+			}
+		}
+	}
 }
@@ -0,0 +1,193 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer single-consumer ring buffer of input
+ * event records. Records are stored in primitive arrays so that
+ * publishing an event never allocates. Exactly one thread may
+ * publish events and exactly one (other) thread may drain them.
+ * @author Roan
+ * @see EventManager
+ */
+public class EventQueue{
+	/**
+	 * Event type of a key press event.
+	 */
+	public static final int KEY_PRESS = 0;
+	/**
+	 * Event type of a key release event.
+	 */
+	public static final int KEY_RELEASE = 1;
+	/**
+	 * Event type of a mouse button press event.
+	 */
+	public static final int BUTTON_PRESS = 2;
+	/**
+	 * Event type of a mouse button release event.
+	 */
+	public static final int BUTTON_RELEASE = 3;
+	/**
+	 * Event type of a mouse move event.
+	 */
+	public static final int MOUSE_MOVE = 4;
+	/**
+	 * Bit mask used to map sequence numbers to buffer indices.
+	 */
+	private final int mask;
+	/**
+	 * The type of each buffered event.
+	 */
+	private final int[] types;
+	/**
+	 * The key code or button ID of each buffered event.
+	 */
+	private final int[] codes;
+	/**
+	 * The cursor x coordinate of each buffered event.
+	 */
+	private final int[] xs;
+	/**
+	 * The cursor y coordinate of each buffered event.
+	 */
+	private final int[] ys;
+	/**
+	 * The nanosecond time stamp of each buffered event.
+	 */
+	private final long[] times;
+	/**
+	 * Sequence number of the next event to read, only written by the consumer.
+	 */
+	private final AtomicLong head = new AtomicLong();
+	/**
+	 * Sequence number of the next event to write, only written by the producer.
+	 */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * Constructs a new event queue.
+	 * @param capacity The maximum number of buffered events,
+	 *        has to be a positive power of two.
+	 * @throws IllegalArgumentException When the given capacity
+	 *         is not a positive power of two.
+	 */
+	public EventQueue(int capacity) throws IllegalArgumentException{
+		if(capacity <= 0 || Integer.bitCount(capacity) != 1){
+			throw new IllegalArgumentException("Capacity has to be a positive power of two.");
+		}
+
+		mask = capacity - 1;
+		types = new int[capacity];
+		codes = new int[capacity];
+		xs = new int[capacity];
+		ys = new int[capacity];
+		times = new long[capacity];
+	}
+
+	/**
+	 * Publishes a new event to this queue. May only be called by the producer thread.
+	 * @param type The event type.
+	 * @param code The key code or button ID of the event (if any).
+	 * @param x The cursor x coordinate of the event (if any).
+	 * @param y The cursor y coordinate of the event (if any).
+	 * @param time The nanosecond time stamp of the event.
+	 * @return True if the event was published, false if the queue was full.
+	 */
+	public boolean publish(int type, int code, int x, int y, long time){
+		long seq = tail.get();
+		if(seq - head.get() > mask){
+			return false;
+		}
+
+		int idx = (int)(seq & mask);
+		types[idx] = type;
+		codes[idx] = code;
+		xs[idx] = x;
+		ys[idx] = y;
+		times[idx] = time;
+
+		//a full volatile write so a parking consumer can never miss this event
+		tail.set(seq + 1);
+		return true;
+	}
+
+	/**
+	 * Passes buffered events to the given handler in the order
+	 * they were published. May only be called by the consumer thread.
+	 * @param handler The handler to pass events to.
+	 * @param max The maximum number of events to drain.
+	 * @return The number of events that were drained.
+	 */
+	public int drain(EventHandler handler, int max){
+		long start = head.get();
+		long end = Math.min(tail.get(), start + max);
+
+		for(long seq = start; seq < end; seq++){
+			int idx = (int)(seq & mask);
+			handler.handle(types[idx], codes[idx], xs[idx], ys[idx], times[idx]);
+		}
+
+		head.set(end);
+		return (int)(end - start);
+	}
+
+	/**
+	 * Checks if this queue currently has no buffered events.
+	 * @return True if this queue is empty.
+	 */
+	public boolean isEmpty(){
+		return head.get() == tail.get();
+	}
+
+	/**
+	 * Gets the number of events currently buffered in this queue.
+	 * @return The number of buffered events.
+	 */
+	public int size(){
+		return (int)(tail.get() - head.get());
+	}
+
+	/**
+	 * Gets the maximum number of events this queue can buffer.
+	 * @return The capacity of this queue.
+	 */
+	public int getCapacity(){
+		return mask + 1;
+	}
+
+	/**
+	 * Handler for events drained from an event queue.
+	 * @author Roan
+	 */
+	@FunctionalInterface
+	public static abstract interface EventHandler{
+
+		/**
+		 * Handles a single event drained from the queue.
+		 * @param type The event type.
+		 * @param code The key code or button ID of the event (if any).
+		 * @param x The cursor x coordinate of the event (if any).
+		 * @param y The cursor y coordinate of the event (if any).
+		 * @param time The nanosecond time stamp of the event.
+		 */
+		public abstract void handle(int type, int code, int x, int y, long time);
+	}
+}
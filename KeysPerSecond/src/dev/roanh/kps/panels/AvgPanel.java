@@ -46,6 +46,6 @@ public final class AvgPanel extends DataPanel{
 
 	@Override
 	protected String getValue(){
-		return settings.formatAvg(Main.avg);
+		return settings.formatAvg(Main.stats.getSnapshot().getAverage());
 	}
 }
\ No newline at end of file
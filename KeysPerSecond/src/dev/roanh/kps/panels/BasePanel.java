@@ -21,7 +21,10 @@ package dev.roanh.kps.panels;
 import java.awt.AlphaComposite;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
@@ -61,6 +64,14 @@ public abstract class BasePanel extends JPanel implements LayoutPosition, Editor
 	 * The configuration for this panel.
 	 */
 	private PanelSettings config;
+	/**
+	 * Cached rendering of the panel border.
+	 */
+	private transient BufferedImage borderImage = null;
+	/**
+	 * The {@link ColorManager#version} the border cache was rendered for.
+	 */
+	private int borderVersion = -1;
 	
 	/**
 	 * Constructs a new base panel with the given settings.
@@ -95,14 +106,53 @@ public abstract class BasePanel extends JPanel implements LayoutPosition, Editor
 		render(g);
 
 		//panel border
-		g.drawImage(ColorManager.graph_upper_left,   borderOffset, borderOffset, borderOffset + imageSize, borderOffset + imageSize, 0, 0, 4, 4, this);
-		g.drawImage(ColorManager.graph_lower_left,   borderOffset, this.getHeight() - borderOffset - imageSize, borderOffset + imageSize, this.getHeight() - borderOffset, 0, 0, 4, 4, this);
-		g.drawImage(ColorManager.graph_upper_right,  this.getWidth() - borderOffset - imageSize, borderOffset, this.getWidth() - borderOffset, borderOffset + imageSize, 0, 0, 4, 4, this);
-		g.drawImage(ColorManager.graph_lower_right,  this.getWidth() - borderOffset - imageSize, this.getHeight() - borderOffset - imageSize, this.getWidth() - borderOffset, this.getHeight() - borderOffset, 0, 0, 4, 4, this);
-		g.drawImage(ColorManager.graph_side_left,    borderOffset, borderOffset + imageSize, borderOffset + imageSize, this.getHeight() - borderOffset - imageSize, 0, 0, 4, 56, this);
-		g.drawImage(ColorManager.graph_upper_middle, borderOffset + imageSize, borderOffset, this.getWidth() - borderOffset - imageSize, borderOffset + imageSize, 0, 0, 46, 4, this);
-		g.drawImage(ColorManager.graph_lower_middle, borderOffset + imageSize, this.getHeight() - borderOffset - imageSize, this.getWidth() - borderOffset - imageSize, this.getHeight() - borderOffset, 0, 0, 46, 4, this);
-		g.drawImage(ColorManager.graph_side_right,   this.getWidth() - borderOffset - imageSize, borderOffset + imageSize, this.getWidth() - borderOffset, this.getHeight() - borderOffset - imageSize, 0, 0, 4, 56, this);
+		BufferedImage img = getBorderImage();
+		if(img != null){
+			int band = borderOffset + imageSize;
+			int width = img.getWidth();
+			int height = img.getHeight();
+			if(band * 2 >= width || band * 2 >= height){
+				g.drawImage(img, 0, 0, this);
+			}else{
+				//only the outer band of the panel contains the border
+				g.drawImage(img, 0, 0, width, band, 0, 0, width, band, this);
+				g.drawImage(img, 0, height - band, width, height, 0, height - band, width, height, this);
+				g.drawImage(img, 0, band, band, height - band, 0, band, band, height - band, this);
+				g.drawImage(img, width - band, band, width, height - band, width - band, band, width, height - band, this);
+			}
+		}
+	}
+	
+	/**
+	 * Gets an image with the border of this panel. The border is rendered
+	 * once and cached until the panel is resized or the images change.
+	 * @return An image with the panel border or null if the panel has no size.
+	 */
+	private BufferedImage getBorderImage(){
+		int width = this.getWidth();
+		int height = this.getHeight();
+		if(width <= 0 || height <= 0){
+			return null;
+		}
+		
+		if(borderImage == null || borderImage.getWidth() != width || borderImage.getHeight() != height || borderVersion != ColorManager.version){
+			borderVersion = ColorManager.version;
+			GraphicsConfiguration gc = getGraphicsConfiguration();
+			borderImage = gc == null ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB) : gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+			
+			Graphics2D g = borderImage.createGraphics();
+			g.drawImage(ColorManager.graph_upper_left,   borderOffset, borderOffset, borderOffset + imageSize, borderOffset + imageSize, 0, 0, 4, 4, this);
+			g.drawImage(ColorManager.graph_lower_left,   borderOffset, height - borderOffset - imageSize, borderOffset + imageSize, height - borderOffset, 0, 0, 4, 4, this);
+			g.drawImage(ColorManager.graph_upper_right,  width - borderOffset - imageSize, borderOffset, width - borderOffset, borderOffset + imageSize, 0, 0, 4, 4, this);
+			g.drawImage(ColorManager.graph_lower_right,  width - borderOffset - imageSize, height - borderOffset - imageSize, width - borderOffset, height - borderOffset, 0, 0, 4, 4, this);
+			g.drawImage(ColorManager.graph_side_left,    borderOffset, borderOffset + imageSize, borderOffset + imageSize, height - borderOffset - imageSize, 0, 0, 4, 56, this);
+			g.drawImage(ColorManager.graph_upper_middle, borderOffset + imageSize, borderOffset, width - borderOffset - imageSize, borderOffset + imageSize, 0, 0, 46, 4, this);
+			g.drawImage(ColorManager.graph_lower_middle, borderOffset + imageSize, height - borderOffset - imageSize, width - borderOffset - imageSize, height - borderOffset, 0, 0, 46, 4, this);
+			g.drawImage(ColorManager.graph_side_right,   width - borderOffset - imageSize, borderOffset + imageSize, width - borderOffset, height - borderOffset - imageSize, 0, 0, 4, 56, this);
+			g.dispose();
+		}
+		
+		return borderImage;
 	}
 	
 	@Override
@@ -22,28 +22,56 @@ import java.awt.Graphics2D;
 import java.awt.GraphicsDevice;
 import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
-import java.util.Iterator;
-import java.util.concurrent.ConcurrentLinkedDeque;
 
 import dev.roanh.kps.Main;
 import dev.roanh.kps.RenderingMode;
 import dev.roanh.kps.config.group.CursorGraphSettings;
+import dev.roanh.kps.event.listener.MousePathListener;
 
 /**
- * Graph showing the cursor movement.
+ * Graph showing the cursor movement. Cursor positions are recorded
+ * as they are received from the input event stream, the main update
+ * loop only expires positions that fell outside the backlog.
  * @author Roan
  * @see CursorGraphSettings
  */
-public class CursorGraphPanel extends GraphPanel{
+public class CursorGraphPanel extends GraphPanel implements MousePathListener{
 	/**
 	 * Serial ID.
 	 */
 	private static final long serialVersionUID = -2604642433575841219L;
 	/**
-	 * List of recorded cursor snapshots.
+	 * Initial capacity of the buffer with cursor snapshots.
 	 */
-	private final ConcurrentLinkedDeque<TimePoint> path = new ConcurrentLinkedDeque<TimePoint>();
+	private static final int INITIAL_CAPACITY = 64;
+	/**
+	 * Upper bound on the capacity of the buffer with cursor snapshots.
+	 */
+	private static final int MAX_CAPACITY = 1 << 16;
+	/**
+	 * Buffer with the recorded cursor snapshots.
+	 */
+	private volatile Trail trail = new Trail(INITIAL_CAPACITY);
+	/**
+	 * Lock guarding modifications to the cursor snapshot buffer.
+	 */
+	private final Object lock = new Object();
+	/**
+	 * Reusable buffer for the x coordinates of the drawn cursor path.
+	 */
+	private int[] polyX = new int[0];
+	/**
+	 * Reusable buffer for the y coordinates of the drawn cursor path.
+	 */
+	private int[] polyY = new int[0];
+	/**
+	 * Reusable buffer with the ranges still to simplify in the drawn cursor path.
+	 */
+	private int[] ranges = new int[0];
+	/**
+	 * Reusable buffer marking the points of the drawn cursor path that are kept.
+	 */
+	private boolean[] keep = new boolean[0];
 	/**
 	 * The graph configuration.
 	 */
@@ -52,6 +80,14 @@ public class CursorGraphPanel extends GraphPanel{
 	 * Rectangle with the dimensions and location of the tracked display.
 	 */
 	private final Rectangle display;
+	/**
+	 * Time in milliseconds of the last snapshot at a new cursor position.
+	 */
+	private volatile long lastMove = 0L;
+	/**
+	 * Time in milliseconds of the last update.
+	 */
+	private long lastUpdate = 0L;
 	
 	/**
 	 * Constructs a new cursor graph with the given settings.
@@ -66,14 +102,49 @@ public class CursorGraphPanel extends GraphPanel{
 	}
 	
 	/**
-	 * Adds a new cursor snapshot to the graph.
+	 * Adds a new cursor snapshot to the graph if the cursor moved at
+	 * least the configured threshold away from the last snapshot.
 	 * @param x The cursor x coordinate.
 	 * @param y The cursor y coordinate.
 	 * @param time The snapshot time.
 	 */
 	private void addPoint(int x, int y, long time){
-		if(display.contains(x, y)){
-			path.addFirst(new TimePoint(x, y, time));
+		if(!display.contains(x, y)){
+			return;
+		}
+		
+		synchronized(lock){
+			Trail data = trail;
+			if(data.size > 0){
+				int last = data.index(data.size - 1);
+				long dx = data.xs[last] - x;
+				long dy = data.ys[last] - y;
+				long threshold = config.getThreshold();
+				if(dx * dx + dy * dy < threshold * threshold){
+					//the cursor did not move far enough, keep the last snapshot alive instead
+					data.times[last] = time;
+					return;
+				}
+			}
+			
+			lastMove = time;
+			if(data.size == data.getCapacity()){
+				int capacity = getMaxCapacity();
+				if(data.getCapacity() < capacity){
+					data = data.resize(Math.min(data.getCapacity() * 2, capacity));
+					trail = data;
+				}else{
+					//evict the oldest snapshot
+					data.first = data.index(1);
+					data.size--;
+				}
+			}
+			
+			int idx = data.index(data.size);
+			data.xs[idx] = x;
+			data.ys[idx] = y;
+			data.times[idx] = time;
+			data.size++;
 		}
 	}
 	
@@ -82,21 +153,61 @@ public class CursorGraphPanel extends GraphPanel{
 	 * @param time The current time.
 	 */
 	private void removeExpired(long time){
-		while(!path.isEmpty() && time - path.peekLast().time > config.getBacklog()){
-			path.removeLast();
+		synchronized(lock){
+			Trail data = trail;
+			while(data.size > 0 && time - data.times[data.first] > config.getBacklog()){
+				data.first = data.index(1);
+				data.size--;
+			}
+			
+			//release the memory used for a burst of snapshots
+			int capacity = data.getCapacity();
+			if(capacity > INITIAL_CAPACITY && data.size < capacity / 4){
+				trail = data.resize(capacity / 2);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the maximum number of cursor snapshots to keep, this allows
+	 * for about one snapshot per millisecond of the backlog.
+	 * @return The maximum number of cursor snapshots.
+	 */
+	private int getMaxCapacity(){
+		return Math.max(INITIAL_CAPACITY, Math.min(config.getBacklog(), MAX_CAPACITY));
+	}
+	
+	@Override
+	public void onMouseMove(int x, int y, int count, double length){
+		if(display != null){
+			addPoint(x, y, Main.eventManager.getEventTime() / 1000000);
 		}
 	}
 	
 	@Override
-	public void update(){
+	public boolean update(){
+		boolean wasIdle = isIdle();
 		long time = System.nanoTime() / 1000000;
-		addPoint(Main.mouseLoc.x, Main.mouseLoc.y, time);
+		if(display != null){
+			//keeps the snapshot at a resting cursor alive
+			addPoint(Main.mouseLoc.x, Main.mouseLoc.y, time);
+		}
 		removeExpired(time);
+		lastUpdate = time;
+		return !wasIdle || !isIdle();
+	}
+	
+	@Override
+	public boolean isIdle(){
+		return trail.size == 0 || lastUpdate - lastMove > config.getBacklog();
 	}
 	
 	@Override
 	public void reset(){
-		path.clear();
+		synchronized(lock){
+			trail = new Trail(INITIAL_CAPACITY);
+		}
+		
 		repaint();
 	}
 	
@@ -130,21 +241,33 @@ public class CursorGraphPanel extends GraphPanel{
 			g.translate((right - left - display.getWidth() * f) / 2.0D, 0.0D);
 		}
 		
-		//draw the cursor path
-		Iterator<TimePoint> iter = path.iterator();
-		if(iter.hasNext()){
-			Path2D line = new Path2D.Double();
-			
-			TimePoint p = iter.next();
-			g.translate(-display.x * f, -display.y * f);
-			line.moveTo(p.x * f, p.y * f);
-			while(iter.hasNext()){
-				p = iter.next();
-				line.lineTo(p.x * f, p.y * f);
+		//project the cursor path, skipping snapshots that end up on the same pixel
+		int points = 0;
+		synchronized(lock){
+			final Trail data = trail;
+			final int n = data.size;
+			if(polyX.length < n){
+				polyX = new int[n];
+				polyY = new int[n];
 			}
 			
+			for(int i = 0; i < n; i++){
+				int idx = data.index(i);
+				int px = (int)Math.round((data.xs[idx] - display.x) * f);
+				int py = (int)Math.round((data.ys[idx] - display.y) * f);
+				if(points == 0 || px != polyX[points - 1] || py != polyY[points - 1]){
+					polyX[points] = px;
+					polyY[points] = py;
+					points++;
+				}
+			}
+		}
+		
+		//draw the cursor path
+		points = simplify(points);
+		if(points > 1){
 			g.setColor(foreground.getColor());
-			g.draw(line);
+			g.drawPolyline(polyX, polyY, points);
 		}
 		
 		//restore original state
@@ -153,33 +276,157 @@ public class CursorGraphPanel extends GraphPanel{
 	}
 	
 	/**
-	 * Captured time point with a cursor snapshot.
+	 * Simplifies the projected cursor path using the Douglas-Peucker algorithm,
+	 * removing all points that are at most one pixel away from the line drawn
+	 * in their place. The drawn path therefore stays within a pixel of the
+	 * original while long paths need a lot fewer line segments.
+	 * @param points The number of points in the projected cursor path.
+	 * @return The number of points in the simplified cursor path.
+	 */
+	private int simplify(int points){
+		if(points <= 2){
+			return points;
+		}
+		
+		if(keep.length < points){
+			keep = new boolean[points];
+			ranges = new int[points * 2];
+		}
+		
+		keep[0] = true;
+		keep[points - 1] = true;
+		for(int i = 1; i < points - 1; i++){
+			keep[i] = false;
+		}
+		
+		//every range on the stack has distinct kept end points
+		int stack = 0;
+		ranges[stack++] = 0;
+		ranges[stack++] = points - 1;
+		while(stack > 0){
+			int end = ranges[--stack];
+			int start = ranges[--stack];
+			long dx = polyX[end] - polyX[start];
+			long dy = polyY[end] - polyY[start];
+			long len = dx * dx + dy * dy;
+			
+			//find the point furthest from the line between the end points, scaled by its length
+			int max = -1;
+			long maxDist = 0L;
+			for(int i = start + 1; i < end; i++){
+				long px = polyX[i] - polyX[start];
+				long py = polyY[i] - polyY[start];
+				long dist;
+				if(len == 0L){
+					dist = px * px + py * py;
+				}else{
+					long cross = dx * py - dy * px;
+					dist = cross * cross;
+				}
+				
+				if(dist > maxDist){
+					maxDist = dist;
+					max = i;
+				}
+			}
+			
+			//keep the point if it is more than one pixel away from the line
+			if(max != -1 && maxDist > Math.max(len, 1L)){
+				keep[max] = true;
+				ranges[stack++] = start;
+				ranges[stack++] = max;
+				ranges[stack++] = max;
+				ranges[stack++] = end;
+			}
+		}
+		
+		int kept = 0;
+		for(int i = 0; i < points; i++){
+			if(keep[i]){
+				polyX[kept] = polyX[i];
+				polyY[kept] = polyY[i];
+				kept++;
+			}
+		}
+		
+		return kept;
+	}
+	
+	/**
+	 * Circular buffer with cursor snapshots ordered from oldest to newest.
+	 * Snapshots are stored as a structure of arrays so that recording a
+	 * snapshot does not allocate. Trails are only modified while holding
+	 * the lock of the owning graph.
 	 * @author Roan
 	 */
-	private static class TimePoint{
+	private static final class Trail{
 		/**
-		 * The cursor x coordinate.
+		 * The cursor x coordinate of each snapshot.
 		 */
-		private final int x;
+		private final int[] xs;
 		/**
-		 * The cursor y coordinate.
+		 * The cursor y coordinate of each snapshot.
 		 */
-		private final int y;
+		private final int[] ys;
 		/**
-		 * The time the snapshot was taken.
+		 * The time in milliseconds each snapshot was taken.
 		 */
-		private final long time;
-
+		private final long[] times;
+		/**
+		 * Index of the oldest snapshot.
+		 */
+		private volatile int first = 0;
+		/**
+		 * Number of snapshots in this trail.
+		 */
+		private volatile int size = 0;
+		
+		/**
+		 * Constructs a new empty trail.
+		 * @param capacity The maximum number of snapshots.
+		 */
+		private Trail(int capacity){
+			xs = new int[capacity];
+			ys = new int[capacity];
+			times = new long[capacity];
+		}
+		
 		/**
-		 * Constructs a new time point.
-		 * @param x The cursor x coordinate.
-		 * @param y The cursor y coordinate.
-		 * @param time The snapshot time.
+		 * Gets the maximum number of snapshots in this trail.
+		 * @return The capacity of this trail.
 		 */
-		private TimePoint(int x, int y, long time){
-			this.x = x;
-			this.y = y;
-			this.time = time;
+		private int getCapacity(){
+			return times.length;
+		}
+		
+		/**
+		 * Maps a position in this trail to an index in the backing arrays.
+		 * @param offset The position relative to the oldest snapshot.
+		 * @return The index in the backing arrays.
+		 */
+		private int index(int offset){
+			int idx = first + offset;
+			return idx >= times.length ? idx - times.length : idx;
+		}
+		
+		/**
+		 * Constructs a new trail with the given capacity
+		 * and the same snapshots as this trail.
+		 * @param capacity The capacity of the new trail, at
+		 *        least the number of snapshots in this trail.
+		 * @return The new trail.
+		 */
+		private Trail resize(int capacity){
+			Trail copy = new Trail(capacity);
+			for(int i = 0; i < size; i++){
+				int idx = index(i);
+				copy.xs[i] = xs[idx];
+				copy.ys[i] = ys[idx];
+				copy.times[i] = times[idx];
+			}
+			
+			copy.size = size;
+			return copy;
 		}
 	}
 }
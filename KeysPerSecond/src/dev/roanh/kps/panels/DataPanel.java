@@ -41,6 +41,14 @@ public abstract class DataPanel extends BasePanel{
 	 * Settings for this panel.
 	 */
 	private DataPanelSettings config;
+	/**
+	 * The value shown when this panel was last rendered.
+	 */
+	private volatile String lastValue = null;
+	/**
+	 * The most recently formatted numeric value.
+	 */
+	private volatile FormattedValue formatted = new FormattedValue(0);
 
 	/**
 	 * Constructs a new data panel with the given settings.
@@ -70,6 +78,42 @@ public abstract class DataPanel extends BasePanel{
 		return false;
 	}
 
+	/**
+	 * Checks if the value shown by this panel changes over time even
+	 * when no input is received. Such panels keep being repainted
+	 * while the program is idle.
+	 * @return True if the value of this panel depends on the current time.
+	 */
+	public boolean isTimeDependent(){
+		return false;
+	}
+
+	/**
+	 * Checks if the value of this panel changed since the last time
+	 * this panel was rendered, meaning that it has to be repainted.
+	 * @return True if the value of this panel changed.
+	 */
+	public boolean hasChanged(){
+		return !getValue().equals(lastValue);
+	}
+
+	/**
+	 * Formats the given numeric value for display. The string for
+	 * the last formatted value is cached so repeated calls with an
+	 * unchanged value do not allocate a new string.
+	 * @param value The value to format.
+	 * @return The given value as a string.
+	 */
+	protected String formatValue(long value){
+		FormattedValue last = formatted;
+		if(last.value != value){
+			last = new FormattedValue(value);
+			formatted = last;
+		}
+		
+		return last.text;
+	}
+
 	/**
 	 * Gets the value for this panel.
 	 * @return The value for this panel.
@@ -93,6 +137,32 @@ public abstract class DataPanel extends BasePanel{
 
 		cache.renderTitle(config.getName(), g, this);
 
-		cache.renderValue(getValue(), g, this);
+		String value = getValue();
+		lastValue = value;
+		cache.renderValue(value, g, this);
+	}
+	
+	/**
+	 * A numeric value together with its string form.
+	 * @author Roan
+	 */
+	private static final class FormattedValue{
+		/**
+		 * The numeric value.
+		 */
+		private final long value;
+		/**
+		 * The value as a string.
+		 */
+		private final String text;
+		
+		/**
+		 * Constructs a new formatted value.
+		 * @param value The numeric value.
+		 */
+		private FormattedValue(long value){
+			this.value = value;
+			text = String.valueOf(value);
+		}
 	}
 }
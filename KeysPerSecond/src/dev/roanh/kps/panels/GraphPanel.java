@@ -43,11 +43,44 @@ public abstract class GraphPanel extends BasePanel{
 	 * method is called from the main update loop thread
 	 * and it is thus guaranteed that derived statistics
 	 * do not update during this method.
+	 * @return True if the update changed what the graph
+	 *         shows and the graph should be repainted.
 	 */
-	public abstract void update();
+	public abstract boolean update();
 	
 	/**
-	 * Resets any data collected by this graph to defaults.
+	 * Checks if this graph has settled, meaning that further
+	 * updates would not change what it shows as long as
+	 * no new input is received. Called from the main update
+	 * loop thread right after {@link #update()}.
+	 * @return True if this graph has settled.
+	 */
+	public abstract boolean isIdle();
+	
+	/**
+	 * Checks if what this graph shows changes over time even
+	 * when no input is received. Such graphs keep being updated
+	 * while the main update loop runs at the reduced idle rate.
+	 * @return True if this graph accumulates data over time.
+	 */
+	public boolean isTimeDependent(){
+		return false;
+	}
+	
+	/**
+	 * Resets any data collected by this graph that depends on the
+	 * statistics or the update rate to defaults. Called whenever
+	 * the statistics are reset or the update rate changes.
+	 * @see #clear()
 	 */
 	public abstract void reset();
+	
+	/**
+	 * Clears all data collected by this graph, called when the
+	 * user explicitly resets the graphs. By default this is the
+	 * same as {@link #reset()}.
+	 */
+	public void clear(){
+		reset();
+	}
 }
@@ -0,0 +1,328 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.panels;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import dev.roanh.kps.Main;
+import dev.roanh.kps.RenderingMode;
+import dev.roanh.kps.config.group.HeatmapGraphSettings;
+import dev.roanh.kps.event.listener.ButtonPressListener;
+
+/**
+ * Graph showing a heatmap of where the cursor spends its time and
+ * where mouse buttons are pressed. The tracked display is divided
+ * into a grid of cells that each accumulate the time the cursor
+ * spent in them, so memory use does not grow with the amount of
+ * data collected. The grid is rendered from a cached image with a
+ * single pixel per cell of which only changed tiles are recoloured.
+ * @author Roan
+ * @see HeatmapGraphSettings
+ */
+public class HeatmapGraphPanel extends GraphPanel implements ButtonPressListener{
+	/**
+	 * Serial ID.
+	 */
+	private static final long serialVersionUID = 8529411862395204416L;
+	/**
+	 * Width and height of a tile of cells that is recoloured as a whole.
+	 */
+	private static final int TILE_SIZE = 8;
+	/**
+	 * Initial upper bound of the heatmap scale in milliseconds.
+	 */
+	private static final long INITIAL_SCALE = 1024L;
+	/**
+	 * Colour map from heat level to colour, level 0 is fully transparent.
+	 */
+	private static final int[] palette = new int[256];
+	/**
+	 * The graph configuration.
+	 */
+	private final HeatmapGraphSettings config;
+	/**
+	 * Rectangle with the dimensions and location of the tracked display.
+	 */
+	private final Rectangle display;
+	/**
+	 * Width and height in pixels of the display area covered by a cell.
+	 */
+	private final int cellSize;
+	/**
+	 * Number of cell columns in the heatmap.
+	 */
+	private final int cols;
+	/**
+	 * Number of cell rows in the heatmap.
+	 */
+	private final int rows;
+	/**
+	 * Accumulated weight of each cell in milliseconds.
+	 */
+	private final long[] cells;
+	/**
+	 * Whether each tile of cells has to be recoloured.
+	 */
+	private final boolean[] dirty;
+	/**
+	 * Number of tiles in each row of tiles.
+	 */
+	private final int tileCols;
+	/**
+	 * Cached image with a single pixel for each cell.
+	 */
+	private final BufferedImage image;
+	/**
+	 * The pixel data of the cached image.
+	 */
+	private final int[] pixels;
+	/**
+	 * Lock guarding the cell data.
+	 */
+	private final Object lock = new Object();
+	/**
+	 * Current upper bound of the heatmap scale, always a power of two
+	 * multiple of the initial scale such that it rarely changes.
+	 */
+	private long scale = INITIAL_SCALE;
+	/**
+	 * Natural logarithm of one more than the current scale.
+	 */
+	private double logScale = Math.log1p(INITIAL_SCALE);
+	/**
+	 * Whether the entire image has to be recoloured.
+	 */
+	private boolean full = true;
+	/**
+	 * Whether the heatmap changed visibly since the last update.
+	 */
+	private boolean changed = false;
+	/**
+	 * Time in milliseconds of the last update.
+	 */
+	private long lastUpdate = 0L;
+	/**
+	 * The cursor x coordinate at the last update.
+	 */
+	private int lastX;
+	/**
+	 * The cursor y coordinate at the last update.
+	 */
+	private int lastY;
+	
+	/**
+	 * Constructs a new heatmap graph with the given settings.
+	 * @param config The graph configuration.
+	 */
+	public HeatmapGraphPanel(HeatmapGraphSettings config){
+		super(config);
+		this.config = config;
+		
+		GraphicsDevice device = config.getDisplay();
+		display = device == null ? null : device.getDefaultConfiguration().getBounds();
+		cellSize = config.getCellSize();
+		cols = display == null ? 1 : (display.width + cellSize - 1) / cellSize;
+		rows = display == null ? 1 : (display.height + cellSize - 1) / cellSize;
+		cells = new long[cols * rows];
+		tileCols = (cols + TILE_SIZE - 1) / TILE_SIZE;
+		dirty = new boolean[tileCols * ((rows + TILE_SIZE - 1) / TILE_SIZE)];
+		image = new BufferedImage(cols, rows, BufferedImage.TYPE_INT_ARGB);
+		pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+	}
+	
+	/**
+	 * Adds weight to the cell containing the given display coordinate.
+	 * @param x The x coordinate on the display.
+	 * @param y The y coordinate on the display.
+	 * @param weight The weight to add in milliseconds.
+	 */
+	private void addWeight(int x, int y, long weight){
+		if(display == null || weight <= 0 || !display.contains(x, y)){
+			return;
+		}
+		
+		int cx = (x - display.x) / cellSize;
+		int cy = (y - display.y) / cellSize;
+		int idx = cy * cols + cx;
+		
+		synchronized(lock){
+			long old = cells[idx];
+			long value = old + weight;
+			cells[idx] = value;
+			
+			if(value > scale){
+				while(scale < value){
+					scale <<= 1;
+				}
+				
+				logScale = Math.log1p(scale);
+				full = true;
+				changed = true;
+			}else if(getLevel(old) != getLevel(value)){
+				dirty[(cy / TILE_SIZE) * tileCols + cx / TILE_SIZE] = true;
+				changed = true;
+			}
+		}
+	}
+	
+	/**
+	 * Maps a cell weight to a heat level using a logarithmic scale.
+	 * @param value The cell weight.
+	 * @return The heat level for the given weight.
+	 */
+	private int getLevel(long value){
+		return value <= 0 ? 0 : 1 + (int)(254.0D * Math.log1p(value) / logScale);
+	}
+	
+	/**
+	 * Recolours the cells of a single tile in the cached image.
+	 * @param tx The tile column.
+	 * @param ty The tile row.
+	 */
+	private void recolor(int tx, int ty){
+		int maxY = Math.min(rows, (ty + 1) * TILE_SIZE);
+		int maxX = Math.min(cols, (tx + 1) * TILE_SIZE);
+		for(int y = ty * TILE_SIZE; y < maxY; y++){
+			for(int x = tx * TILE_SIZE; x < maxX; x++){
+				int idx = y * cols + x;
+				pixels[idx] = palette[getLevel(cells[idx])];
+			}
+		}
+	}
+	
+	@Override
+	public void onButtonPress(int button){
+		addWeight(Main.mouseLoc.x, Main.mouseLoc.y, config.getClickWeight());
+	}
+	
+	@Override
+	public boolean update(){
+		long time = System.nanoTime() / 1000000;
+		if(lastUpdate != 0L){
+			//the cursor spent the time since the last update at its previous location
+			addWeight(lastX, lastY, time - lastUpdate);
+		}
+		
+		lastUpdate = time;
+		lastX = Main.mouseLoc.x;
+		lastY = Main.mouseLoc.y;
+		
+		synchronized(lock){
+			boolean result = changed;
+			changed = false;
+			return result;
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Dwell time is accumulated from the time between updates and
+	 * heatmaps keep being updated while the update loop is idle, so
+	 * a heatmap never prevents the update loop from slowing down.
+	 * @see #isTimeDependent()
+	 */
+	@Override
+	public boolean isIdle(){
+		return true;
+	}
+	
+	@Override
+	public boolean isTimeDependent(){
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Dwell time does not depend on the statistics or the update
+	 * rate, so the heatmap is only cleared by {@link #clear()}.
+	 */
+	@Override
+	public void reset(){
+	}
+	
+	@Override
+	public void clear(){
+		synchronized(lock){
+			Arrays.fill(cells, 0L);
+			scale = INITIAL_SCALE;
+			logScale = Math.log1p(INITIAL_SCALE);
+			full = true;
+		}
+		
+		repaint();
+	}
+	
+	@Override
+	protected void render(Graphics2D g){
+		if(display == null){
+			//configured display was not found
+			return;
+		}
+		
+		synchronized(lock){
+			for(int i = 0; i < dirty.length; i++){
+				if(full || dirty[i]){
+					recolor(i % tileCols, i / tileCols);
+					dirty[i] = false;
+				}
+			}
+			
+			full = false;
+		}
+
+		//compute canvas dimensions
+		final int left = RenderingMode.insideOffset + borderOffset;
+		final int right = this.getWidth() - RenderingMode.insideOffset - borderOffset - 1;
+		final int top = RenderingMode.insideOffset + borderOffset;
+		final int bottom = this.getHeight() - RenderingMode.insideOffset - borderOffset;
+		
+		//center the display on the canvas
+		double f = Math.min((right - left) / display.getWidth(), (bottom - top) / display.getHeight());
+		int width = (int)(display.getWidth() * f);
+		int height = (int)(display.getHeight() * f);
+		
+		//each image pixel is a cell, a cell at the edge may extend past the display
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(
+			image,
+			left + (right - left - width) / 2,
+			top + (bottom - top - height) / 2,
+			(int)Math.round(cols * cellSize * f),
+			(int)Math.round(rows * cellSize * f),
+			null
+		);
+	}
+	
+	static{
+		for(int i = 1; i < palette.length; i++){
+			float heat = i / (float)(palette.length - 1);
+			int rgb = Color.HSBtoRGB((1.0F - heat) * 0.66F, 1.0F, 1.0F) & 0xFFFFFF;
+			palette[i] = ((int)(64 + heat * 191) << 24) | rgb;
+		}
+	}
+}
@@ -0,0 +1,278 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.panels;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.util.Arrays;
+
+import dev.roanh.kps.ColorManager;
+import dev.roanh.kps.Key;
+import dev.roanh.kps.KeyTiming;
+import dev.roanh.kps.LatencyHistogram;
+import dev.roanh.kps.Main;
+import dev.roanh.kps.RenderingMode;
+import dev.roanh.kps.config.group.HoldGraphSettings;
+import dev.roanh.kps.config.group.KeyPanelSettings;
+
+/**
+ * Graph showing for every configured key how long it is held down. Each key
+ * gets a bar with the current hold duration, a thin line at the average hold
+ * duration and a thick line at the configured hold duration percentile. Bars
+ * of keys that are currently held down are highlighted, which makes keys that
+ * are stuck down and keys with very short chattering presses easy to spot.
+ * @author Roan
+ * @see HoldGraphSettings
+ * @see KeyTiming
+ */
+public class HoldGraphPanel extends GraphPanel{
+	/**
+	 * Serial ID.
+	 */
+	private static final long serialVersionUID = -1498624530471651823L;
+	/**
+	 * Smallest upper bound of the graph in microseconds.
+	 */
+	private static final long MIN_SCALE = 1L << 14;
+	/**
+	 * Stroke used to draw the percentile lines.
+	 */
+	private static final Stroke percentileStroke = new BasicStroke(2.0F, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 1.0F, null, 0);
+	/**
+	 * Stroke used to draw the average lines.
+	 */
+	private static final Stroke avgstroke = new BasicStroke(1.0F, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 1.0F, null, 0);
+	/**
+	 * The configuration for this graph.
+	 */
+	private final HoldGraphSettings config;
+	/**
+	 * The hold durations for all keys shown in the graph.
+	 */
+	private volatile Bars bars = new Bars(0);
+	/**
+	 * Current upper bound of the graph in microseconds, always a power of
+	 * two multiple of the minimum scale such that it rarely changes.
+	 */
+	private volatile long scale = MIN_SCALE;
+	/**
+	 * Whether any of the keys was held down during the last update.
+	 */
+	private boolean held = false;
+
+	/**
+	 * Constructs a new hold duration graph with the given configuration.
+	 * @param config The graph configuration.
+	 */
+	public HoldGraphPanel(HoldGraphSettings config){
+		super(config);
+		this.config = config;
+	}
+
+	@Override
+	public boolean update(){
+		final long now = System.nanoTime();
+		Bars data = bars;
+		boolean changed = false;
+		if(data.size() != Main.config.getKeys().size()){
+			data = new Bars(Main.config.getKeys().size());
+			bars = data;
+			changed = true;
+		}
+		
+		int i = 0;
+		long top = 0;
+		boolean down = false;
+		for(KeyPanelSettings info : Main.config.getKeys()){
+			if(i == data.size()){
+				break;
+			}
+			
+			Key key = Main.keys.get(info.getKeyCode());
+			KeyTiming timing = key == null ? null : key.getTiming();
+			long current = -1L;
+			boolean pressed = false;
+			if(timing != null){
+				current = timing.getCurrentHold(now);
+				pressed = timing.isHeld();
+				
+				//the distribution only changes when a new hold is completed
+				LatencyHistogram holds = timing.getHoldTimes();
+				long count = holds.getCount();
+				if(count != data.counts[i]){
+					data.means[i] = holds.getMean();
+					data.percentiles[i] = holds.getPercentile(config.getPercentile());
+					data.counts[i] = count;
+					changed = true;
+				}
+			}
+			
+			if(current != data.current[i] || pressed != data.held[i]){
+				data.current[i] = current;
+				data.held[i] = pressed;
+				changed = true;
+			}
+			
+			down |= pressed;
+			
+			top = Math.max(top, Math.max(current, Math.max(data.means[i], data.percentiles[i])));
+			i++;
+		}
+		
+		long bound = MIN_SCALE;
+		while(bound < top){
+			bound <<= 1;
+		}
+		
+		if(bound != scale){
+			scale = bound;
+			changed = true;
+		}
+		
+		held = down;
+		return changed;
+	}
+
+	@Override
+	public boolean isIdle(){
+		return !held;
+	}
+
+	@Override
+	public void reset(){
+		bars = new Bars(0);
+		scale = MIN_SCALE;
+		repaint();
+	}
+
+	@Override
+	protected void render(Graphics2D g){
+		final int left = RenderingMode.insideOffset + borderOffset;
+		final int bottom = this.getHeight() - RenderingMode.insideOffset - borderOffset;
+		final double insideWidth = this.getWidth() - (borderOffset + RenderingMode.insideOffset) * 2 - 1;
+		final double insideHeight = this.getHeight() - (borderOffset + RenderingMode.insideOffset) * 2;
+		final Bars data = bars;
+		final long max = scale;
+		final int n = data.size();
+		if(n == 0){
+			return;
+		}
+		
+		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, foreground.getAlpha()));
+		final double column = insideWidth / n;
+		final int gap = Math.max(1, (int)(column / 8.0D));
+		for(int i = 0; i < n; i++){
+			int x1 = left + (int)(column * i) + gap;
+			int x2 = left + (int)(column * (i + 1)) - gap;
+			if(x2 <= x1){
+				continue;
+			}
+			
+			long current = data.current[i];
+			if(current >= 0){
+				int y = toY(current, bottom, insideHeight, max);
+				g.setColor(data.held[i] ? ColorManager.activeColor : ColorManager.alphaAqua);
+				g.fillRect(x1, y, x2 - x1, bottom - y);
+				g.setColor(foreground.getColor());
+				g.drawRect(x1, y, x2 - x1, bottom - y);
+			}
+			
+			if(data.means[i] >= 0){
+				int y = toY(data.means[i], bottom, insideHeight, max);
+				g.setColor(foreground.getColor().darker());
+				g.setStroke(avgstroke);
+				g.drawLine(x1 - gap / 2, y, x2 + gap / 2, y);
+			}
+			
+			if(data.percentiles[i] >= 0){
+				int y = toY(data.percentiles[i], bottom, insideHeight, max);
+				g.setColor(foreground.getColor());
+				g.setStroke(percentileStroke);
+				g.drawLine(x1 - gap / 2, y, x2 + gap / 2, y);
+			}
+		}
+	}
+	
+	/**
+	 * Converts a duration to a y coordinate on this panel.
+	 * @param micros The duration in microseconds.
+	 * @param oy The y coordinate of the graph origin.
+	 * @param insideHeight The height of the graph area.
+	 * @param scale The current upper bound of the graph.
+	 * @return The y coordinate for the given duration.
+	 */
+	private static int toY(long micros, int oy, double insideHeight, long scale){
+		return (int)(oy - ((insideHeight * Math.min(micros, scale)) / scale));
+	}
+
+	/**
+	 * Hold durations in microseconds for a fixed number of keys,
+	 * a duration of -1 means that no duration is available.
+	 * Bars are only modified from the main update loop thread.
+	 * @author Roan
+	 */
+	private static final class Bars{
+		/**
+		 * The current or last hold duration of each key.
+		 */
+		private final long[] current;
+		/**
+		 * The average hold duration of each key.
+		 */
+		private final long[] means;
+		/**
+		 * The configured hold duration percentile of each key.
+		 */
+		private final long[] percentiles;
+		/**
+		 * The number of completed holds the averages and percentiles were computed from.
+		 */
+		private final long[] counts;
+		/**
+		 * Whether each key is currently held down.
+		 */
+		private final boolean[] held;
+		
+		/**
+		 * Constructs new bars without any durations.
+		 * @param size The number of keys.
+		 */
+		private Bars(int size){
+			current = new long[size];
+			means = new long[size];
+			percentiles = new long[size];
+			counts = new long[size];
+			held = new boolean[size];
+			Arrays.fill(current, -1L);
+			Arrays.fill(means, -1L);
+			Arrays.fill(percentiles, -1L);
+			Arrays.fill(counts, -1L);
+		}
+		
+		/**
+		 * Gets the number of keys with hold durations.
+		 * @return The number of keys.
+		 */
+		private int size(){
+			return current.length;
+		}
+	}
+}
@@ -56,8 +56,14 @@ public final class KeyPanel extends DataPanel{
 		return key.isDown();
 	}
 
+	@Override
+	public boolean hasChanged(){
+		//repainted directly by the key when it changes
+		return false;
+	}
+
 	@Override
 	protected String getValue(){
-		return String.valueOf(key.getCount());
+		return formatValue(key.getCount());
 	}
 }
\ No newline at end of file
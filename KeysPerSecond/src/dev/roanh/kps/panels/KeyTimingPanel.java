@@ -0,0 +1,87 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.panels;
+
+import dev.roanh.kps.Key;
+import dev.roanh.kps.KeyTiming;
+import dev.roanh.kps.Main;
+import dev.roanh.kps.config.TimingMetric;
+import dev.roanh.kps.config.group.KeyTimingPanelSettings;
+
+/**
+ * Panel showing a timing statistic of a single key.
+ * @author Roan
+ * @see KeyTiming
+ */
+public class KeyTimingPanel extends DataPanel{
+	/**
+	 * Serial ID.
+	 */
+	private static final long serialVersionUID = -3370316268917415405L;
+	/**
+	 * The settings for this panel.
+	 */
+	private final KeyTimingPanelSettings config;
+
+	/**
+	 * Constructs a new key timing panel.
+	 * @param config The panel configuration.
+	 */
+	public KeyTimingPanel(KeyTimingPanelSettings config){
+		super(config);
+		this.config = config;
+	}
+	
+	@Override
+	public boolean isTimeDependent(){
+		return config.getMetric() == TimingMetric.RATE || config.getMetric() == TimingMetric.CURRENT_HOLD;
+	}
+
+	@Override
+	protected String getValue(){
+		Key key = Main.keys.get(config.getKeyCode());
+		KeyTiming timing = key == null ? null : key.getTiming();
+		if(timing == null){
+			return "-";
+		}
+		
+		switch(config.getMetric()){
+		case HOLD:
+			return formatDuration(timing.getHoldTimes().getPercentile(config.getPercentile()));
+		case CURRENT_HOLD:
+			return formatDuration(timing.getCurrentHold(System.nanoTime()));
+		case AVERAGE_HOLD:
+			return formatDuration(timing.getHoldTimes().getMean());
+		case INTERVAL:
+			return formatDuration(timing.getIntervals().getPercentile(config.getPercentile()));
+		case RATE:
+		default:
+			return formatValue(timing.getRate(System.nanoTime()));
+		}
+	}
+	
+	/**
+	 * Formats a duration for display in whole milliseconds.
+	 * @param micros The duration in microseconds or -1 if there is no duration.
+	 * @return The formatted duration.
+	 */
+	private String formatDuration(long micros){
+		return micros == -1L ? "-" : formatValue((micros + 500L) / 1000L);
+	}
+}
@@ -53,6 +53,11 @@ public class LastPanel extends DataPanel{
 		this.config = config;
 	}
 
+	@Override
+	public boolean isTimeDependent(){
+		return true;
+	}
+
 	@Override
 	protected String getValue(){
 		if(Main.lastHitTime == -1){
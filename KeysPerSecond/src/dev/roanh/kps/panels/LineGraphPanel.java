@@ -21,13 +21,13 @@ package dev.roanh.kps.panels;
 import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
 import java.awt.Stroke;
-import java.util.concurrent.ConcurrentLinkedDeque;
 
 import dev.roanh.kps.ColorManager;
 import dev.roanh.kps.Main;
 import dev.roanh.kps.RenderingMode;
+import dev.roanh.kps.SampleHistory;
+import dev.roanh.kps.SlidingMaximum;
 import dev.roanh.kps.config.group.LineGraphSettings;
 
 /**
@@ -49,17 +49,40 @@ public class LineGraphPanel extends GraphPanel{
 	 */
 	private static final Stroke avgstroke = new BasicStroke(1.0F, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 1.0F, null, 0);
 	/**
-	 * Data points.
+	 * History with the data points, the capacity of
+	 * this history is the number of points in the backlog.
 	 */
-	private final ConcurrentLinkedDeque<Integer> values = new ConcurrentLinkedDeque<Integer>();
+	private volatile SampleHistory history = new SampleHistory(0);
+	/**
+	 * Reusable buffer for the x coordinates of the graph polygon.
+	 */
+	private int[] polyX = new int[0];
+	/**
+	 * Reusable buffer for the y coordinates of the graph polygon.
+	 */
+	private int[] polyY = new int[0];
 	/**
 	 * The configuration for this graph panel.
 	 */
 	private final LineGraphSettings config;
 	/**
-	 * Highest encountered value used as the upper bound of the graph.
+	 * Tracks the highest value in the backlog of the graph.
+	 */
+	private SlidingMaximum windowMax = null;
+	/**
+	 * Current upper bound of the graph, follows the highest value
+	 * in the backlog subject to the configured hysteresis.
 	 */
-	private int maxval = 1;
+	private volatile int maxval = 1;
+	/**
+	 * Number of non zero values in the graph.
+	 */
+	private int nonZero = 0;
+	/**
+	 * Lock guarding modifications to the history, the backlog maximum
+	 * and the non zero count, a reset can come from any thread.
+	 */
+	private final Object lock = new Object();
 	
 	/**
 	 * Constructs a new graph panel with the given configuration.
@@ -72,25 +95,32 @@ public class LineGraphPanel extends GraphPanel{
 
 	@Override
 	public final void reset(){
-		values.clear();
-		maxval = 1;
+		synchronized(lock){
+			history = new SampleHistory(history.getCapacity());
+			nonZero = 0;
+			maxval = 1;
+			if(windowMax != null){
+				windowMax.clear();
+			}
+		}
 		repaint();
 	}
 
 	@Override
 	protected void render(Graphics2D g){
 		//graph computation
-		Polygon poly = new Polygon();
 		final int oy = this.getHeight() - borderOffset - RenderingMode.insideOffset;
 		final int ox = this.getWidth() - borderOffset - RenderingMode.insideOffset - 1;
 		final double insideHeight = this.getHeight() - (borderOffset + RenderingMode.insideOffset) * 2;
 		final double insideWidth = this.getWidth() - (borderOffset + RenderingMode.insideOffset) * 2 - 1;
 		final int frames = (config.getBacklog() / Main.config.getUpdateRateMs()) - 1;
+		final int scale = maxval;
+		final double avg = Main.stats.getSnapshot().getAverage();
 		
 		//average line
 		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, foreground.getAlpha()));
-		if(config.isAverageVisible() && Main.avg <= config.getMaxValue()){
-			int y = (int)(oy - ((insideHeight * Main.avg) / maxval));
+		if(config.isAverageVisible() && avg <= config.getMaxValue() && avg <= scale){
+			int y = (int)(oy - ((insideHeight * avg) / scale));
 			g.setColor(foreground.getColor().darker());
 			g.setStroke(avgstroke);
 			g.drawLine(borderOffset + RenderingMode.insideOffset, y, ox, y);
@@ -99,26 +129,116 @@ public class LineGraphPanel extends GraphPanel{
 		//graph drawing
 		if(frames > 0){
 			final double segment = insideWidth / frames;
+			final SampleHistory data = history;
+			final int n = data.getSize();
+			final int level = data.selectLevel(Math.max(1, (int)insideWidth));
+			final int maxPoints = level == 0 ? n + 2 : (((n >> level) + 2) * 2) + 2;
+			if(polyX.length < maxPoints){
+				polyX = new int[maxPoints];
+				polyY = new int[maxPoints];
+			}
 
-			double px = ox;
-			poly.addPoint(ox, oy);
-			for(int val : values){
-				poly.addPoint((int)px, (int)(oy - ((insideHeight * val) / maxval)));
-				px -= segment;
+			polyX[0] = ox;
+			polyY[0] = oy;
+			int points = 1;
+			if(level == 0){
+				double px = ox;
+				for(int age = 0; age < n; age++){
+					polyX[points] = (int)px;
+					polyY[points++] = toY(data.get(age), oy, insideHeight, scale);
+					px -= segment;
+				}
+				polyX[points] = (int)Math.min(ox, px + segment);
+				polyY[points++] = oy;
+			}else{
+				//draw the minimum and maximum of each block of samples that is fully in the backlog
+				final long last = data.getCount() - 1;
+				final long newest = last >> level;
+				final long oldest = (last - n + (1L << level)) >> level;
+				for(long block = newest; block >= oldest; block--){
+					long start = block << level;
+					long end = Math.min(start + (1L << level) - 1, last);
+					int px = (int)(ox - (last - (start + end) / 2.0D) * segment);
+					polyX[points] = px;
+					polyY[points++] = toY(data.getMaximum(level, block), oy, insideHeight, scale);
+					polyX[points] = px;
+					polyY[points++] = toY(data.getMinimum(level, block), oy, insideHeight, scale);
+				}
+				polyX[points] = (int)Math.min(ox, ox - (last - (oldest << level)) * segment);
+				polyY[points++] = oy;
 			}
-			poly.addPoint((int)Math.min(ox, px + segment), oy);
 
 			g.setStroke(line);
 			g.setColor(ColorManager.alphaAqua);
-			g.fillPolygon(poly);
+			g.fillPolygon(polyX, polyY, points);
 			g.setColor(foreground.getColor());
-			g.drawPolygon(poly);
+			g.drawPolygon(polyX, polyY, points);
 		}
 	}
 	
+	/**
+	 * Converts a graph value to a y coordinate on this panel.
+	 * @param value The value to convert.
+	 * @param oy The y coordinate of the graph origin.
+	 * @param insideHeight The height of the graph area.
+	 * @param scale The current upper bound of the graph.
+	 * @return The y coordinate for the given value.
+	 */
+	private static int toY(int value, int oy, double insideHeight, int scale){
+		return (int)(oy - ((insideHeight * Math.min(value, scale)) / scale));
+	}
+	
 	@Override
-	public void update(){
-		addPoint(Main.prev);
+	public boolean update(){
+		boolean wasIdle = isIdle();
+		addPoint(Main.stats.getSnapshot().getPrevious());
+		return !wasIdle || !isIdle();
+	}
+	
+	@Override
+	public boolean isIdle(){
+		return nonZero == 0 && history.getSize() >= getCapacity();
+	}
+	
+	/**
+	 * Gets the number of data points that fit in the backlog of this graph.
+	 * @return The number of data points in a full graph.
+	 */
+	private int getCapacity(){
+		return Math.max(0, config.getBacklog() / Main.config.getUpdateRateMs());
+	}
+	
+	/**
+	 * Resizes the data point history of this graph to the given
+	 * capacity, retaining the most recent data points that still fit.
+	 * @param capacity The new capacity of the history.
+	 */
+	private void resize(int capacity){
+		SampleHistory data = history;
+		SampleHistory copy = new SampleHistory(capacity);
+		windowMax = capacity == 0 ? null : new SlidingMaximum(capacity);
+		
+		nonZero = 0;
+		for(int age = Math.min(data.getSize(), capacity) - 1; age >= 0; age--){
+			int value = data.get(age);
+			copy.add(value);
+			windowMax.add(value);
+			if(value != 0){
+				nonZero++;
+			}
+		}
+		
+		history = copy;
+	}
+	
+	/**
+	 * Updates the upper bound of the graph after the backlog changed.
+	 */
+	private void rescale(){
+		int top = Math.max(1, windowMax.getMaximum());
+		if(top > maxval || top * 100L < maxval * (100L - config.getHysteresis())){
+			maxval = top;
+		}
 	}
 	
 	/**
@@ -126,15 +246,30 @@ public class LineGraphPanel extends GraphPanel{
 	 * @param value The new point to add.
 	 */
 	private void addPoint(int value){
-		value = Math.min(value, config.getMaxValue());
-		
-		if(value > maxval){
-			maxval = value;
-		}
-
-		values.addFirst(value);
-		while(values.size() > config.getBacklog() / Main.config.getUpdateRateMs()){
-			values.removeLast();
+		synchronized(lock){
+			value = Math.min(value, config.getMaxValue());
+			
+			int capacity = getCapacity();
+			if(capacity != history.getCapacity()){
+				resize(capacity);
+			}
+			
+			if(capacity == 0){
+				return;
+			}
+			
+			SampleHistory data = history;
+			if(data.getSize() == capacity && data.get(capacity - 1) != 0){
+				nonZero--;
+			}
+			
+			data.add(value);
+			if(value != 0){
+				nonZero++;
+			}
+			
+			windowMax.add(value);
+			rescale();
 		}
 	}
 
@@ -41,6 +41,6 @@ public final class MaxPanel extends DataPanel{
 
 	@Override
 	protected String getValue(){
-		return String.valueOf(Main.max);
+		return formatValue(Main.stats.getSnapshot().getMaximum());
 	}
 }
\ No newline at end of file
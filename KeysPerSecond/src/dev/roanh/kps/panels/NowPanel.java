@@ -44,6 +44,6 @@ public final class NowPanel extends DataPanel{
 
 	@Override
 	protected String getValue(){
-		return String.valueOf(Main.prev);
+		return formatValue(Main.stats.getSnapshot().getPrevious());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.panels;
+
+import dev.roanh.kps.Main;
+import dev.roanh.kps.config.group.SuppressedPanelSettings;
+import dev.roanh.kps.event.EventManager;
+
+/**
+ * Panel showing the number of key and button
+ * presses that were suppressed as chatter.
+ * @author Roan
+ * @see EventManager#setDebounceTime(int)
+ */
+public final class SuppressedPanel extends DataPanel{
+	/**
+	 * Serial ID.
+	 */
+	private static final long serialVersionUID = -7216953480962417152L;
+
+	/**
+	 * Constructs a new suppressed panel.
+	 * @param settings The panel configuration.
+	 */
+	public SuppressedPanel(SuppressedPanelSettings settings){
+		super(settings);
+	}
+
+	@Override
+	protected String getValue(){
+		return formatValue(Main.eventManager.getSuppressedCount());
+	}
+}
@@ -42,6 +42,6 @@ public final class TotPanel extends DataPanel{
 
 	@Override
 	protected String getValue(){
-		return String.valueOf(Main.hits);
+		return formatValue(Main.stats.getSnapshot().getTotal());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.ui.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import dev.roanh.kps.config.group.InputSettings;
+import dev.roanh.util.Dialog;
+
+/**
+ * Dialog for configuring the debounce time for keys and buttons.
+ * @author Roan
+ */
+public class DebounceDialog extends JPanel{
+	/**
+	 * Serial ID.
+	 */
+	private static final long serialVersionUID = 2890437563296711307L;
+	/**
+	 * The spinner with the debounce time in milliseconds.
+	 */
+	private JSpinner time;
+	
+	/**
+	 * Constructs a new debounce configuration dialog.
+	 * @param config The input settings to update.
+	 */
+	private DebounceDialog(InputSettings config){
+		super(new BorderLayout(0, 5));
+		
+		JPanel info = new JPanel(new GridLayout(3, 1, 0, 0));
+		info.add(new JLabel("Presses that follow the release of the same key"));
+		info.add(new JLabel("within the debounce time are ignored as chatter."));
+		info.add(new JLabel("A debounce time of 0 disables this filter."));
+		
+		time = new JSpinner(new SpinnerNumberModel(config.getDebounceTime(), 0, 1000, 1));
+		
+		add(info, BorderLayout.PAGE_START);
+		add(new JLabel("Debounce time (ms): "), BorderLayout.WEST);
+		add(time, BorderLayout.CENTER);
+	}
+
+	/**
+	 * Shows a dialog to configure the debounce time.
+	 * @param config The input settings to update.
+	 * @return True if the debounce time was changed.
+	 */
+	public static final boolean configureDebounce(InputSettings config){
+		DebounceDialog pconfig = new DebounceDialog(config);
+		if(Dialog.showSaveDialog(pconfig)){
+			config.setDebounceTime((int)pconfig.time.getValue());
+			return true;
+		}
+		
+		return false;
+	}
+}
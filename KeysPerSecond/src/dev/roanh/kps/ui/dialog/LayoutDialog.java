@@ -103,6 +103,8 @@ public class LayoutDialog{
 		buttons.add(createAddButton(panelView, "Add KPS", config.getPanels(), PanelType.CURRENT::newSettings));
 		buttons.add(createAddButton(panelView, "Add Total", config.getPanels(), PanelType.TOTAL::newSettings));
 		buttons.add(createAddButton(panelView, "Add Last", config.getPanels(), PanelType.LAST::newSettings));
+		buttons.add(createAddButton(panelView, "Add Key Timing", config.getPanels(), PanelType.TIMING::newSettings));
+		buttons.add(createAddButton(panelView, "Add Suppressed", config.getPanels(), PanelType.SUPPRESSED::newSettings));
 		
 		JPanel panel = new JPanel(new BorderLayout());
 		panel.setBorder(BorderFactory.createTitledBorder("Panels"));
@@ -122,6 +124,8 @@ public class LayoutDialog{
 		JPanel graphButtons = new JPanel(new GridLayout(1, 0, 2, 0));
 		graphButtons.add(createAddButton(graphView, "Add Line Graph", config.getGraphs(), GraphType.LINE::newSettings));
 		graphButtons.add(createAddButton(graphView, "Add Cursor Graph", config.getGraphs(), GraphType.CURSOR::newSettings));
+		graphButtons.add(createAddButton(graphView, "Add Heatmap", config.getGraphs(), GraphType.HEATMAP::newSettings));
+		graphButtons.add(createAddButton(graphView, "Add Hold Graph", config.getGraphs(), GraphType.HOLD::newSettings));
 		
 		JPanel graphPanel = new JPanel(new BorderLayout());
 		graphPanel.setBorder(BorderFactory.createTitledBorder("Graphs"));
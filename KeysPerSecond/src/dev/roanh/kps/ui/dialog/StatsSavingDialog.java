@@ -60,6 +60,10 @@ public class StatsSavingDialog extends JPanel{
 	 * Whether to load stats on launch.
 	 */
 	private JCheckBox loadOnStart;
+	/**
+	 * Whether to continuously journal stats next to the save file.
+	 */
+	private JCheckBox journal;
 	/**
 	 * The time unit for the auto save interval.
 	 * @see #time
@@ -98,6 +102,7 @@ public class StatsSavingDialog extends JPanel{
 		endPanel.setBorder(BorderFactory.createTitledBorder("Save on exit"));
 		saveOnExit = new JCheckBox("Save statistics to a file on exit", config.isSaveOnExitEnabled());
 		loadOnStart = new JCheckBox("Load saved statistics from a file on launch", config.isLoadOnLaunchEnabled());
+		journal = new JCheckBox("Continuously journal statistics to recover them after a crash", config.isJournalEnabled());
 
 		JPanel selectFile = new JPanel(new BorderLayout(2, 0));
 		selectFile.add(new JLabel("Save location: "), BorderLayout.LINE_START);
@@ -113,17 +118,21 @@ public class StatsSavingDialog extends JPanel{
 		});
 		
 		ActionListener stateTask = e->{
-			boolean enabled = saveOnExit.isSelected() || loadOnStart.isSelected();
+			boolean enabled = saveOnExit.isSelected() || loadOnStart.isSelected() || journal.isSelected();
 			selectedFile.setEnabled(enabled);
 			select.setEnabled(enabled);
 		};
 		
 		saveOnExit.addActionListener(stateTask);
 		loadOnStart.addActionListener(stateTask);
+		journal.addActionListener(stateTask);
 		stateTask.actionPerformed(null);
 		
-		endPanel.add(saveOnExit, BorderLayout.PAGE_START);
-		endPanel.add(loadOnStart, BorderLayout.CENTER);
+		JPanel checks = new JPanel(new GridLayout(3, 1, 0, 0));
+		checks.add(saveOnExit);
+		checks.add(loadOnStart);
+		checks.add(journal);
+		endPanel.add(checks, BorderLayout.CENTER);
 		endPanel.add(selectFile, BorderLayout.PAGE_END);
 		
 		JPanel periodicPanel = new JPanel(new BorderLayout());
@@ -248,6 +257,14 @@ public class StatsSavingDialog extends JPanel{
 			config.setSaveOnExitEnabled(dialog.saveOnExit.isSelected());
 			config.setLoadOnLaunchEnabled(dialog.loadOnStart.isSelected());
 			config.setSaveFile(dialog.selectedFile.getText());
+			config.setJournalEnabled(dialog.journal.isSelected());
+			if(live){
+				if(config.isJournalEnabled()){
+					Statistics.startJournal();
+				}else{
+					Statistics.stopJournal();
+				}
+			}
 		}
 	}
 	
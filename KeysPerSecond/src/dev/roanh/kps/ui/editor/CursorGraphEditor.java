@@ -73,5 +73,10 @@ public class CursorGraphEditor extends Editor{
 		JSpinner backlog = new JSpinner(new SpinnerNumberModel(config.getBacklog(), 0, Integer.MAX_VALUE, 100));
 		backlog.addChangeListener(e->config.setBacklog((int)backlog.getValue()));
 		fields.add(backlog);
+		
+		labels.add(new JLabel("Move threshold (pixels): "));
+		JSpinner threshold = new JSpinner(new SpinnerNumberModel(config.getThreshold(), 1, Integer.MAX_VALUE, 1));
+		threshold.addChangeListener(e->config.setThreshold((int)threshold.getValue()));
+		fields.add(threshold);
 	}
 }
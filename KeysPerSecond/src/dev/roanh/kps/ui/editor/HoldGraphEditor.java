@@ -0,0 +1,57 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.ui.editor;
+
+import javax.swing.JLabel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import dev.roanh.kps.Main;
+import dev.roanh.kps.config.group.HoldGraphSettings;
+
+/**
+ * Editor for key hold duration graph settings.
+ * @author Roan
+ * @see HoldGraphSettings
+ */
+public class HoldGraphEditor extends Editor{
+	/**
+	 * Serial ID.
+	 */
+	private static final long serialVersionUID = 3326254186604913087L;
+
+	/**
+	 * Constructs a new editor.
+	 * @param config The configuration to update.
+	 * @param live If updates should be reflected in real time.
+	 */
+	public HoldGraphEditor(HoldGraphSettings config, boolean live){
+		super("Graph Settings");
+		
+		labels.add(new JLabel("Percentile: "));
+		JSpinner percentile = new JSpinner(new SpinnerNumberModel(config.getPercentile(), 1, 100, 1));
+		fields.add(percentile);
+		percentile.addChangeListener(e->{
+			config.setPercentile((int)percentile.getValue());
+			if(live){
+				Main.reconfigure();
+			}
+		});
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.ui.editor;
+
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import dev.roanh.kps.Main;
+import dev.roanh.kps.config.TimingMetric;
+import dev.roanh.kps.config.group.KeyPanelSettings;
+import dev.roanh.kps.config.group.KeyTimingPanelSettings;
+
+/**
+ * Editor for key timing panel settings.
+ * @author Roan
+ * @see KeyTimingPanelSettings
+ */
+public class KeyTimingPanelEditor extends DataPanelEditor{
+	/**
+	 * Serial ID.
+	 */
+	private static final long serialVersionUID = 6925407783325016744L;
+
+	/**
+	 * Constructs a new key timing panel settings editor.
+	 * @param config The settings to update.
+	 * @param live If updates should be reflected in real time.
+	 */
+	public KeyTimingPanelEditor(KeyTimingPanelSettings config, boolean live){
+		super(config, live);
+		
+		labels.add(new JLabel("Key: "));
+		JComboBox<String> key = new JComboBox<String>();
+		int[] codes = new int[Main.config.getKeys().size()];
+		int idx = 0;
+		for(KeyPanelSettings info : Main.config.getKeys()){
+			codes[idx++] = info.getKeyCode();
+			key.addItem(info.getName());
+			if(info.getKeyCode() == config.getKeyCode()){
+				key.setSelectedIndex(idx - 1);
+			}
+		}
+		fields.add(key);
+		key.addActionListener(e->{
+			if(key.getSelectedIndex() != -1){
+				config.setKeyCode(codes[key.getSelectedIndex()]);
+				if(live){
+					Main.resetPanels();
+				}
+			}
+		});
+		
+		labels.add(new JLabel("Statistic: "));
+		JComboBox<TimingMetric> metric = new JComboBox<TimingMetric>(TimingMetric.values());
+		fields.add(metric);
+		metric.setSelectedItem(config.getMetric());
+		
+		labels.add(new JLabel("Percentile: "));
+		JSpinner percentile = new JSpinner(new SpinnerNumberModel(config.getPercentile(), 1, 100, 1));
+		fields.add(percentile);
+		percentile.setEnabled(config.getMetric().isPercentile());
+		percentile.addChangeListener(e->{
+			config.setPercentile((int)percentile.getValue());
+			if(live){
+				Main.resetPanels();
+			}
+		});
+		
+		metric.addActionListener(e->{
+			config.setMetric((TimingMetric)metric.getSelectedItem());
+			percentile.setEnabled(config.getMetric().isPercentile());
+			if(live){
+				Main.resetPanels();
+			}
+		});
+	}
+}
@@ -58,6 +58,11 @@ public class LineGraphEditor extends Editor{
 			Main.resetGraphs();
 		});
 		
+		labels.add(new JLabel("Scale hysteresis (%): "));
+		JSpinner hysteresis = new JSpinner(new SpinnerNumberModel(config.getHysteresis(), 0, 100, 5));
+		hysteresis.addChangeListener(e->config.setHysteresis((int)hysteresis.getValue()));
+		fields.add(hysteresis);
+		
 		labels.add(new JLabel("Show average: "));
 		JCheckBox avg = new JCheckBox("", config.isAverageVisible());
 		fields.add(avg);
@@ -0,0 +1,216 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class KeyTableTest{
+
+	@Test
+	public void basicTest(){
+		KeyTable table = new KeyTable();
+		Key a = new Key();
+		Key b = new Key();
+		
+		assertNull(table.get(5));
+		assertSame(b, table.getOrDefault(5, b));
+		
+		table.put(5, a);
+		assertSame(a, table.get(5));
+		assertTrue(table.containsKey(5));
+		assertFalse(table.containsKey(6));
+		
+		table.put(5, b);
+		assertSame(b, table.get(5));
+		assertEquals(1, table.size());
+		
+		table.remove(5);
+		assertNull(table.get(5));
+		assertEquals(0, table.size());
+	}
+	
+	@Test
+	public void putAllTest(){
+		KeyTable table = new KeyTable();
+		Key a = new Key();
+		Key b = new Key();
+		Key c = new Key();
+		table.put(1, a);
+		
+		table.putAll(new int[]{1, 2, 2, 3}, new Key[]{b, a, c, b}, 3);
+		assertSame(b, table.get(1));
+		assertSame(c, table.get(2));
+		assertNull(table.get(3));
+		assertEquals(2, table.size());
+	}
+	
+	@Test
+	public void extendedCodeTest(){
+		KeyTable table = new KeyTable();
+		Map<Integer, Key> expected = new HashMap<Integer, Key>();
+		
+		for(int code = 0; code < 300; code++){
+			for(int mods = 0; mods < 8; mods++){
+				int extended = CommandKeys.getExtendedKeyCode(code, (mods & 1) != 0, (mods & 2) != 0, (mods & 4) != 0);
+				Key key = table.computeIfAbsent(extended, Key::new);
+				assertSame(key, table.computeIfAbsent(extended, Key::new));
+				expected.put(extended, key);
+			}
+		}
+		
+		for(int button = 1; button <= 5; button++){
+			int code = button | CommandKeys.MOUSE_MASK;
+			Key key = new Key();
+			table.put(code, key);
+			expected.put(code, key);
+		}
+		
+		assertEquals(expected.size(), table.size());
+		expected.forEach((code, key)->assertSame(key, table.get(code)));
+		
+		int[] seen = new int[1];
+		table.forEach((code, key)->{
+			assertSame(expected.get(code), key);
+			seen[0]++;
+		});
+		assertEquals(expected.size(), seen[0]);
+		
+		assertTrue(table.removeIf(CommandKeys::isMouseButton));
+		assertFalse(table.removeIf(CommandKeys::isMouseButton));
+		assertEquals(expected.size() - 5, table.size());
+		assertNull(table.get(1 | CommandKeys.MOUSE_MASK));
+		assertSame(expected.get(CommandKeys.CTRL), table.get(CommandKeys.CTRL));
+		
+		table.clear();
+		assertEquals(0, table.size());
+		assertNull(table.get(CommandKeys.CTRL));
+	}
+	
+	@Test
+	public void indexTest(){
+		KeyTable table = new KeyTable();
+		Key plain = table.computeIfAbsent(CommandKeys.getExtendedKeyCode(30, false, false, false), Key::new);
+		Key shift = table.computeIfAbsent(CommandKeys.getExtendedKeyCode(30, true, false, false), Key::new);
+		Key ctrlAlt = table.computeIfAbsent(CommandKeys.getExtendedKeyCode(30, false, true, true), Key::new);
+		Key other = table.computeIfAbsent(CommandKeys.getExtendedKeyCode(31, false, true, false), Key::new);
+		
+		List<Key> found = new ArrayList<Key>();
+		table.forEachWithBaseCode(30, found::add);
+		assertEquals(3, found.size());
+		assertTrue(found.containsAll(Arrays.asList(plain, shift, ctrlAlt)));
+		
+		found.clear();
+		table.forEachWithModifier(CommandKeys.CTRL_MASK, found::add);
+		assertEquals(2, found.size());
+		assertTrue(found.containsAll(Arrays.asList(ctrlAlt, other)));
+		
+		found.clear();
+		table.forEachWithModifier(CommandKeys.ALT_MASK, found::add);
+		assertEquals(Arrays.asList(ctrlAlt), found);
+		
+		found.clear();
+		table.forEachWithModifier(CommandKeys.SHIFT_MASK, found::add);
+		assertEquals(Arrays.asList(shift), found);
+		
+		table.removeIf(code->CommandKeys.hasCtrl(code));
+		found.clear();
+		table.forEachWithBaseCode(30, found::add);
+		table.forEachWithBaseCode(31, found::add);
+		table.forEachWithModifier(CommandKeys.CTRL_MASK, found::add);
+		assertEquals(2, found.size());
+		assertTrue(found.containsAll(Arrays.asList(plain, shift)));
+	}
+	
+	@Test
+	public void updateTest(){
+		KeyTable table = new KeyTable();
+		int code = CommandKeys.getExtendedKeyCode(40, false, true, false);
+		Key first = new Key(0, false, true, false);
+		Key second = new Key(0, true, false, false);
+		table.put(code, first);
+		table.put(code, second);
+		
+		List<Key> found = new ArrayList<Key>();
+		table.forEachWithModifier(CommandKeys.CTRL_MASK, found::add);
+		assertTrue(found.isEmpty());
+		table.forEachWithModifier(CommandKeys.ALT_MASK, found::add);
+		table.forEachWithBaseCode(40, found::add);
+		assertEquals(Arrays.asList(second, second), found);
+		
+		table.remove(code);
+		found.clear();
+		table.forEachWithModifier(CommandKeys.ALT_MASK, found::add);
+		table.forEachWithBaseCode(40, found::add);
+		assertTrue(found.isEmpty());
+		
+		for(int round = 0; round < 10; round++){
+			for(int i = 0; i < 100; i++){
+				table.put(CommandKeys.getExtendedKeyCode(i, false, false, true), new Key());
+			}
+			
+			assertEquals(100, table.size());
+			int parity = round % 2;
+			table.removeIf(c->CommandKeys.getBaseKeyCode(c) % 2 == parity);
+			assertEquals(50, table.size());
+			table.removeIf(c->true);
+			assertEquals(0, table.size());
+		}
+		
+		Key key = table.computeIfAbsent(code, Key::new);
+		found.clear();
+		table.forEachWithModifier(CommandKeys.CTRL_MASK, found::add);
+		table.forEachWithModifier(CommandKeys.SHIFT_MASK, found::add);
+		table.forEachWithBaseCode(40, found::add);
+		assertEquals(Arrays.asList(key, key), found);
+		assertSame(key, table.get(code));
+	}
+	
+	@Test
+	public void reinsertTest(){
+		KeyTable table = new KeyTable();
+		int code = CommandKeys.getExtendedKeyCode(50, true, false, false);
+		for(int i = 0; i < 1000; i++){
+			Key key = new Key(code);
+			table.put(code, key);
+			assertSame(key, table.get(code));
+			
+			List<Key> found = new ArrayList<Key>();
+			table.forEachWithModifier(CommandKeys.SHIFT_MASK, found::add);
+			table.forEachWithBaseCode(50, found::add);
+			assertEquals(Arrays.asList(key, key), found);
+			
+			table.remove(code);
+			assertNull(table.get(code));
+		}
+		
+		assertEquals(0, table.size());
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class KeyTimingTest{
+
+	@Test
+	public void holdTest(){
+		KeyTiming timing = new KeyTiming();
+		assertFalse(timing.isHeld());
+		assertEquals(-1, timing.getCurrentHold(0));
+		
+		timing.pressed(1000000000L);
+		assertTrue(timing.isHeld());
+		assertEquals(250000, timing.getCurrentHold(1250000000L));
+		
+		timing.released(1100000000L);
+		assertFalse(timing.isHeld());
+		assertEquals(100000, timing.getCurrentHold(5000000000L));
+		assertEquals(1, timing.getHoldTimes().getCount());
+		
+		//releases without a matching press are ignored
+		timing.released(1200000000L);
+		assertEquals(1, timing.getHoldTimes().getCount());
+	}
+	
+	@Test
+	public void intervalTest(){
+		KeyTiming timing = new KeyTiming();
+		for(int i = 0; i < 10; i++){
+			timing.pressed(i * 50000000L);
+			timing.released(i * 50000000L + 10000000L);
+		}
+		
+		assertEquals(9, timing.getIntervals().getCount());
+		assertEquals(10, timing.getHoldTimes().getCount());
+		assertEquals(10, timing.getRate(9 * 50000000L + 1L));
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest{
+
+	@Test
+	public void emptyTest(){
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(-1, histogram.getPercentile(50));
+	}
+	
+	@Test
+	public void exactTest(){
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(int i = 1; i <= 10; i++){
+			histogram.record(i);
+		}
+		
+		assertEquals(10, histogram.getCount());
+		assertEquals(5, histogram.getPercentile(50));
+		assertEquals(10, histogram.getPercentile(100));
+		assertEquals(1, histogram.getPercentile(0));
+	}
+	
+	@Test
+	public void percentileTest(){
+		Random random = new Random(2024);
+		long[] values = new long[10000];
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(int i = 0; i < values.length; i++){
+			values[i] = (long)Math.exp(random.nextDouble() * 20.0D);
+			histogram.record(values[i]);
+		}
+		
+		Arrays.sort(values);
+		for(int p : new int[]{1, 10, 50, 90, 99, 100}){
+			long expected = values[Math.max(0, (int)Math.ceil(values.length * p / 100.0D) - 1)];
+			long actual = histogram.getPercentile(p);
+			assertTrue(Math.abs(actual - expected) <= Math.max(1L, expected / 16), p + ": " + expected + " vs " + actual);
+		}
+	}
+	
+	@Test
+	public void meanTest(){
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(-1, histogram.getMean());
+		
+		long sum = 0;
+		for(int i = 1; i <= 1000; i++){
+			histogram.record(i * 37L);
+			sum += i * 37L;
+		}
+		
+		long expected = sum / 1000;
+		assertTrue(Math.abs(histogram.getMean() - expected) <= expected / 16, expected + " vs " + histogram.getMean());
+	}
+	
+	@Test
+	public void bucketTest(){
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(1, histogram.getBucket(0));
+		assertEquals(1, histogram.getBucket(LatencyHistogram.BUCKETS - 1));
+		
+		LatencyHistogram copy = new LatencyHistogram();
+		for(int i = 0; i < LatencyHistogram.BUCKETS; i++){
+			copy.addBucket(i, histogram.getBucket(i));
+		}
+		
+		assertEquals(2, copy.getCount());
+		assertEquals(histogram.getPercentile(100), copy.getPercentile(100));
+		
+		copy.clear();
+		assertEquals(0, copy.getCount());
+		assertEquals(0, copy.getBucket(0));
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class PressTimelineTest{
+	private static final long MS = 1000000L;
+
+	@Test
+	public void windowTest(){
+		PressTimeline timeline = new PressTimeline(16);
+		assertEquals(1, timeline.record(0));
+		assertEquals(2, timeline.record(400 * MS));
+		assertEquals(3, timeline.record(999 * MS));
+		assertEquals(3, timeline.record(1000 * MS));
+		assertEquals(3, timeline.count(1000 * MS));
+		assertEquals(3, timeline.count(1399 * MS));
+		assertEquals(2, timeline.count(1400 * MS));
+		assertEquals(1, timeline.count(1999 * MS));
+		assertEquals(0, timeline.count(5000 * MS));
+		assertEquals(1, timeline.record(5000 * MS));
+	}
+	
+	@Test
+	public void fullTest(){
+		PressTimeline timeline = new PressTimeline(4);
+		for(int i = 1; i <= 4; i++){
+			assertEquals(i, timeline.record(i * MS));
+		}
+		
+		assertEquals(4, timeline.record(5 * MS));
+		assertEquals(4, timeline.count(5 * MS));
+		
+		for(int i = 0; i < 100; i++){
+			long time = 2000 * MS + i * 300 * MS;
+			assertEquals(i == 0 ? 1 : i < 3 ? i + 1 : 4, timeline.record(time));
+			assertEquals(i == 0 ? 1 : i < 3 ? i + 1 : 4, timeline.count(time));
+		}
+	}
+	
+	@Test
+	public void clearTest(){
+		PressTimeline timeline = new PressTimeline(8);
+		timeline.record(10 * MS);
+		timeline.record(20 * MS);
+		timeline.clear(20 * MS);
+		assertEquals(0, timeline.count(30 * MS));
+		assertEquals(1, timeline.record(40 * MS));
+		assertEquals(1, timeline.count(50 * MS));
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SampleHistoryTest{
+
+	@Test
+	public void rawTest(){
+		SampleHistory history = new SampleHistory(3);
+		assertEquals(0, history.getSize());
+		history.add(1);
+		history.add(2);
+		assertEquals(2, history.getSize());
+		assertEquals(2, history.get(0));
+		assertEquals(1, history.get(1));
+		history.add(3);
+		history.add(4);
+		assertEquals(3, history.getSize());
+		assertEquals(4, history.getCount());
+		assertEquals(4, history.get(0));
+		assertEquals(3, history.get(1));
+		assertEquals(2, history.get(2));
+	}
+	
+	@Test
+	public void emptyTest(){
+		SampleHistory history = new SampleHistory(0);
+		history.add(5);
+		assertEquals(0, history.getSize());
+		assertEquals(0, history.selectLevel(10));
+	}
+	
+	@Test
+	public void levelTest(){
+		Random random = new Random(4321);
+		int[] data = new int[5000];
+		for(int i = 0; i < data.length; i++){
+			data[i] = random.nextInt(1000);
+		}
+		
+		SampleHistory history = new SampleHistory(1000);
+		for(int i = 0; i < data.length; i++){
+			history.add(data[i]);
+			
+			int level = history.selectLevel(100);
+			assertTrue((history.getSize() >> level) <= 100);
+			assertTrue(level == 0 || (history.getSize() >> (level - 1)) > 100);
+			if(level == 0){
+				continue;
+			}
+			
+			long last = history.getCount() - 1;
+			long oldest = (last - history.getSize() + (1L << level)) >> level;
+			for(long block = oldest; block <= (last >> level); block++){
+				int min = Integer.MAX_VALUE;
+				int max = Integer.MIN_VALUE;
+				for(long seq = block << level; seq < Math.min((block + 1) << level, last + 1); seq++){
+					min = Math.min(min, data[(int)seq]);
+					max = Math.max(max, data[(int)seq]);
+				}
+				
+				assertEquals(min, history.getMinimum(level, block));
+				assertEquals(max, history.getMaximum(level, block));
+			}
+		}
+	}
+}
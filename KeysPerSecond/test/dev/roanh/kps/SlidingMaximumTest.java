@@ -0,0 +1,74 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SlidingMaximumTest{
+
+	@Test
+	public void windowTest(){
+		SlidingMaximum max = new SlidingMaximum(3);
+		assertEquals(0, max.getMaximum());
+		max.add(5);
+		assertEquals(5, max.getMaximum());
+		max.add(1);
+		max.add(2);
+		assertEquals(5, max.getMaximum());
+		max.add(0);
+		assertEquals(2, max.getMaximum());
+		max.add(0);
+		assertEquals(2, max.getMaximum());
+		max.add(0);
+		assertEquals(0, max.getMaximum());
+		max.add(7);
+		assertEquals(7, max.getMaximum());
+		max.clear();
+		assertEquals(0, max.getMaximum());
+		max.add(3);
+		assertEquals(3, max.getMaximum());
+	}
+	
+	@Test
+	public void randomTest(){
+		Random random = new Random(1234);
+		int[] data = new int[10000];
+		for(int i = 0; i < data.length; i++){
+			data[i] = random.nextInt(100);
+		}
+		
+		for(int window : new int[]{1, 2, 7, 64}){
+			SlidingMaximum max = new SlidingMaximum(window);
+			for(int i = 0; i < data.length; i++){
+				max.add(data[i]);
+				
+				int expected = 0;
+				for(int j = Math.max(0, i - window + 1); j <= i; j++){
+					expected = Math.max(expected, data[j]);
+				}
+				
+				assertEquals(expected, max.getMaximum());
+			}
+		}
+	}
+}
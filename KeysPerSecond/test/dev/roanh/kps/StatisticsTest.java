@@ -0,0 +1,90 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+public class StatisticsTest{
+
+	@Test
+	public void roundTripTest() throws IOException{
+		Path file = Files.createTempFile("kps", ".kpsstats");
+		file.toFile().deleteOnExit();
+		Main.keys.clear();
+		Main.stats.reset();
+		
+		int shiftA = CommandKeys.getExtendedKeyCode(30, true, false, false);
+		int ctrlAltB = CommandKeys.getExtendedKeyCode(48, false, true, true);
+		int button = Main.getExtendedButtonCode(1);
+		Main.keys.put(shiftA, new Key(12, false, false, true));
+		Main.keys.put(ctrlAltB, new Key(3, true, true, false));
+		Main.keys.put(button, new Key(40, false, false, false));
+		
+		KeyTiming timing = Main.keys.get(shiftA).getOrCreateTiming();
+		for(int i = 0; i < 5; i++){
+			timing.pressed(i * 80000000L);
+			timing.released(i * 80000000L + (i + 1) * 7000000L);
+		}
+		
+		Main.stats.restore(new StatsSnapshot(55, 2.5D, 9, 22, 1, 3));
+		Statistics.writeStats(file);
+		
+		Main.keys.clear();
+		Main.stats.reset();
+		Statistics.readStats(file);
+		
+		assertEquals(3, Main.keys.size());
+		assertEquals(12, Main.keys.get(shiftA).getCount());
+		assertTrue(Main.keys.get(shiftA).hasShift());
+		assertFalse(Main.keys.get(shiftA).hasCtrl());
+		assertEquals(3, Main.keys.get(ctrlAltB).getCount());
+		assertTrue(Main.keys.get(ctrlAltB).hasAlt());
+		assertTrue(Main.keys.get(ctrlAltB).hasCtrl());
+		assertFalse(Main.keys.get(ctrlAltB).hasShift());
+		assertEquals(40, Main.keys.get(button).getCount());
+		
+		KeyTiming loaded = Main.keys.get(shiftA).getTiming();
+		assertEquals(5, loaded.getHoldTimes().getCount());
+		assertEquals(4, loaded.getIntervals().getCount());
+		for(int i = 0; i < LatencyHistogram.BUCKETS; i++){
+			assertEquals(timing.getHoldTimes().getBucket(i), loaded.getHoldTimes().getBucket(i));
+			assertEquals(timing.getIntervals().getBucket(i), loaded.getIntervals().getBucket(i));
+		}
+		
+		assertNull(Main.keys.get(ctrlAltB).getTiming());
+		assertNull(Main.keys.get(button).getTiming());
+		
+		StatsSnapshot stats = Main.stats.capture();
+		assertEquals(55, stats.getTotal());
+		assertEquals(2.5D, stats.getAverage());
+		assertEquals(9, stats.getMaximum());
+		assertEquals(22, stats.getSeconds());
+		assertEquals(1, stats.getPrevious());
+		assertEquals(3, stats.getPending());
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+public class StatsEngineTest{
+
+	@Test
+	public void updateTest(){
+		StatsEngine engine = new StatsEngine();
+		assertSame(StatsSnapshot.EMPTY, engine.getSnapshot());
+		
+		engine.recordHit(1);
+		engine.recordHit(2);
+		engine.recordHit(3);
+		assertTrue(engine.hasPendingHits());
+		assertEquals(0, engine.getSnapshot().getTotal());
+		assertEquals(3, engine.capture().getPending());
+		assertEquals(3, engine.capture().getMaximum());
+		
+		StatsSnapshot stats = engine.update(3);
+		assertFalse(engine.hasPendingHits());
+		assertSame(stats, engine.getSnapshot());
+		assertEquals(3, stats.getTotal());
+		assertEquals(3, stats.getMaximum());
+		assertEquals(3, stats.getPrevious());
+		assertEquals(1, stats.getSeconds());
+		assertEquals(3.0D, stats.getAverage());
+		
+		engine.recordHit(1);
+		stats = engine.update(1);
+		assertEquals(4, stats.getTotal());
+		assertEquals(3, stats.getMaximum());
+		assertEquals(2.0D, stats.getAverage());
+		
+		//idle updates do not change the average
+		stats = engine.update(0);
+		assertEquals(2, stats.getSeconds());
+		assertEquals(0, stats.getPrevious());
+	}
+	
+	@Test
+	public void resetTest(){
+		StatsEngine engine = new StatsEngine();
+		engine.recordHit(5);
+		engine.update(5);
+		engine.recordHit(6);
+		
+		engine.resetAverage();
+		assertEquals(2, engine.getSnapshot().getTotal());
+		assertEquals(0, engine.getSnapshot().getSeconds());
+		
+		engine.resetMaximum();
+		assertEquals(0, engine.getSnapshot().getMaximum());
+		
+		engine.restore(new StatsSnapshot(10, 1.5D, 7, 4, 2, 3));
+		assertEquals(13, engine.update(0).getTotal());
+		
+		engine.resetTotal();
+		assertEquals(0, engine.getSnapshot().getTotal());
+		assertEquals(7, engine.getSnapshot().getMaximum());
+		
+		engine.reset();
+		assertSame(StatsSnapshot.EMPTY, engine.getSnapshot());
+	}
+	
+	@Test
+	public void concurrentTest() throws InterruptedException{
+		StatsEngine engine = new StatsEngine();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] writers = new Thread[4];
+		for(int i = 0; i < writers.length; i++){
+			writers[i] = new Thread(()->{
+				try{
+					start.await();
+				}catch(InterruptedException e){
+					return;
+				}
+				
+				for(int j = 0; j < 100000; j++){
+					engine.recordHit(j % 100);
+				}
+			});
+			writers[i].start();
+		}
+		
+		start.countDown();
+		while(engine.getSnapshot().getTotal() + engine.capture().getPending() < writers.length * 100000){
+			engine.update(1);
+		}
+		
+		for(Thread writer : writers){
+			writer.join();
+		}
+		
+		assertEquals(writers.length * 100000, engine.update(0).getTotal());
+		assertEquals(99, engine.getSnapshot().getMaximum());
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class StatsJournalTest{
+	
+	private static Path createFile() throws IOException{
+		Path file = Files.createTempFile("kps", ".journal");
+		Files.delete(file);
+		file.toFile().deleteOnExit();
+		Main.keys.clear();
+		Main.stats.reset();
+		return file;
+	}
+	
+	@Test
+	public void replayTest() throws IOException{
+		Path file = createFile();
+		StatsJournal journal = new StatsJournal(file);
+		Main.keys.put(65, new Key(5, false, true, false));
+		Main.keys.put(66, new Key(2, true, false, true));
+		Main.stats.restore(new StatsSnapshot(7, 1.5D, 4, 3, 0, 0));
+		journal.commit();
+		
+		Main.keys.get(65).setCount(9);
+		Main.keys.remove(66);
+		Main.keys.put(67, new Key(1, false, false, false));
+		Main.stats.restore(new StatsSnapshot(10, 2.5D, 6, 4, 0, 0));
+		journal.commit();
+		journal.close();
+		
+		Main.keys.clear();
+		Main.stats.reset();
+		assertTrue(StatsJournal.replay(file));
+		
+		assertEquals(9, Main.keys.get(65).getCount());
+		assertTrue(Main.keys.get(65).hasCtrl());
+		assertFalse(Main.keys.get(65).hasAlt());
+		assertNull(Main.keys.get(66));
+		assertEquals(1, Main.keys.get(67).getCount());
+		assertEquals(10, Main.stats.getSnapshot().getTotal());
+		assertEquals(2.5D, Main.stats.getSnapshot().getAverage());
+		assertEquals(6, Main.stats.getSnapshot().getMaximum());
+		assertEquals(4, Main.stats.getSnapshot().getSeconds());
+	}
+	
+	@Test
+	public void removeTest() throws IOException{
+		Path file = createFile();
+		StatsJournal journal = new StatsJournal(file);
+		Main.keys.put(66, new Key(2, true, false, true));
+		Main.keys.put(68, new Key(4, false, false, false));
+		journal.commit();
+		
+		Main.keys.remove(66);
+		Main.keys.remove(68);
+		journal.commit();
+		
+		Main.keys.put(66, new Key(3, true, false, true));
+		journal.commit();
+		journal.close();
+		
+		//keys that were already tracked but removed later are removed again
+		Main.keys.clear();
+		Main.keys.put(68, new Key(1, false, false, false));
+		assertTrue(StatsJournal.replay(file));
+		
+		assertNull(Main.keys.get(68));
+		assertEquals(3, Main.keys.get(66).getCount());
+		assertTrue(Main.keys.get(66).hasAlt());
+		assertFalse(Main.keys.get(66).hasCtrl());
+		assertTrue(Main.keys.get(66).hasShift());
+	}
+	
+	@Test
+	public void tornTailTest() throws IOException{
+		Path file = createFile();
+		StatsJournal journal = new StatsJournal(file);
+		Main.keys.put(65, new Key(5, false, false, false));
+		journal.commit();
+		Main.keys.get(65).setCount(8);
+		journal.commit();
+		journal.close();
+		
+		//simulate a crash halfway through writing the last record
+		byte[] data = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(data, data.length - 3), StandardOpenOption.TRUNCATE_EXISTING);
+		
+		Main.keys.clear();
+		assertTrue(StatsJournal.replay(file));
+		assertEquals(5, Main.keys.get(65).getCount());
+	}
+	
+	@Test
+	public void corruptTest() throws IOException{
+		Path file = createFile();
+		StatsJournal journal = new StatsJournal(file);
+		Main.keys.put(65, new Key(5, false, false, false));
+		journal.commit();
+		Main.keys.get(65).setCount(8);
+		journal.commit();
+		journal.close();
+		
+		byte[] data = Files.readAllBytes(file);
+		data[data.length - 6]++;
+		Files.write(file, data, StandardOpenOption.TRUNCATE_EXISTING);
+		
+		Main.keys.clear();
+		assertTrue(StatsJournal.replay(file));
+		assertEquals(5, Main.keys.get(65).getCount());
+	}
+	
+	@Test
+	public void missingTest() throws IOException{
+		Path file = createFile();
+		assertFalse(StatsJournal.replay(file));
+		assertNull(Main.keys.get(65));
+		
+		Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+		assertThrows(IOException.class, ()->StatsJournal.replay(file));
+	}
+	
+	@Test
+	public void compactTest() throws IOException{
+		Path file = createFile();
+		StatsJournal journal = new StatsJournal(file);
+		Main.keys.put(65, new Key(0, false, false, false));
+		journal.commit();
+		long size = Files.size(file);
+		
+		//unchanged statistics are not written again
+		journal.commit();
+		assertEquals(size, Files.size(file));
+		
+		for(int i = 1; i <= 100; i++){
+			Main.keys.get(65).setCount(i);
+			journal.commit();
+		}
+		assertTrue(Files.size(file) > size);
+		
+		journal.compact();
+		assertEquals(size, Files.size(file));
+		journal.close();
+		
+		Main.keys.clear();
+		assertTrue(StatsJournal.replay(file));
+		assertEquals(100, Main.keys.get(65).getCount());
+	}
+}
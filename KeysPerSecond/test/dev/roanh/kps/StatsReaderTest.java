@@ -0,0 +1,148 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class StatsReaderTest{
+
+	@Test
+	public void linesTest() throws CharacterCodingException{
+		StatsReader in = reader("a: 1\r\n\r\n# comment\rb: 2\nc");
+		assertTrue(in.nextLine());
+		assertEquals("a: 1", in.getLine());
+		assertTrue(in.nextLine());
+		assertTrue(in.isBlank());
+		assertTrue(in.nextLine());
+		assertTrue(in.isBlank());
+		assertTrue(in.nextLine());
+		assertEquals("b: 2", in.getLine());
+		in.pushBack();
+		assertTrue(in.nextLine());
+		assertEquals("b: 2", in.getLine());
+		assertTrue(in.nextLine());
+		assertEquals("c", in.getLine());
+		assertFalse(in.nextLine());
+	}
+	
+	@Test
+	public void keyTest(){
+		StatsReader in = reader("  - [keycode=-65,count=1234567890123,alt=true,ctrl=false,shift=true,name=\"" + repeat('x', 200) + "\"]");
+		assertTrue(in.nextLine());
+		assertTrue(in.matchKey());
+		assertEquals(-65, in.getCode());
+		assertEquals(1234567890123L, in.getCount());
+		assertTrue(in.hasAlt());
+		assertFalse(in.hasCtrl());
+		assertTrue(in.hasShift());
+		assertFalse(in.matchTiming());
+	}
+	
+	@Test
+	public void invalidKeyTest(){
+		assertFalse(matchKey("  - [keycode=65,count=1,alt=true,ctrl=false,shift=true,name=\"-\""));
+		assertFalse(matchKey("  - [keycode=65,count=-1,alt=true,ctrl=false,shift=true,name=\"-\"]"));
+		assertFalse(matchKey("  - [keycode=65,count=1,alt=yes,ctrl=false,shift=true,name=\"-\"]"));
+		assertFalse(matchKey("  - [keycode=,count=1,alt=true,ctrl=false,shift=true,name=\"-\"]"));
+		assertFalse(matchKey(" - [keycode=65,count=1,alt=true,ctrl=false,shift=true,name=\"-\"]"));
+		assertFalse(matchKey("timing:"));
+		assertThrows(NumberFormatException.class, ()->matchKey("  - [keycode=4294967296,count=1,alt=true,ctrl=false,shift=true,name=\"-\"]"));
+		assertThrows(NumberFormatException.class, ()->matchKey("  - [keycode=1,count=99999999999999999999,alt=true,ctrl=false,shift=true,name=\"-\"]"));
+	}
+	
+	@Test
+	public void timingTest(){
+		StatsReader in = reader("  - [keycode=66,hold=1:2;3:4;,interval=]");
+		assertTrue(in.nextLine());
+		assertTrue(in.matchTiming());
+		assertFalse(in.matchKey());
+		assertEquals(66, in.getCode());
+		
+		LatencyHistogram hold = new LatencyHistogram();
+		in.readHoldTimes(hold);
+		assertEquals(6, hold.getCount());
+		assertEquals(2, hold.getBucket(1));
+		assertEquals(4, hold.getBucket(3));
+		
+		LatencyHistogram interval = new LatencyHistogram();
+		interval.addBucket(5, 5);
+		in.readIntervals(interval);
+		assertEquals(0, interval.getCount());
+	}
+	
+	@Test
+	public void invalidTimingTest(){
+		assertFalse(matchTiming("  - [keycode=66,hold=1:2,interval=3:4"));
+		assertFalse(matchTiming("  - [keycode=66,hold=1:a,interval=3:4]"));
+		assertFalse(matchTiming("  - [keycode=66,interval=3:4]"));
+		assertThrows(IllegalArgumentException.class, ()->readHold("  - [keycode=66,hold=1:2;;3:4,interval=]"));
+		assertThrows(IllegalArgumentException.class, ()->readHold("  - [keycode=66,hold=1:2:3,interval=]"));
+		assertThrows(IllegalArgumentException.class, ()->readHold("  - [keycode=66,hold=12,interval=]"));
+		assertThrows(IllegalArgumentException.class, ()->readHold("  - [keycode=66,hold=" + LatencyHistogram.BUCKETS + ":1,interval=]"));
+	}
+	
+	@Test
+	public void legacyTest(){
+		assertTrue(new StatsReader(new byte[]{(byte)0xAC, (byte)0xED, 0, 5}).isLegacy());
+		assertFalse(reader("version: v8.9").isLegacy());
+		
+		StatsReader in = new StatsReader(new byte[]{'a', (byte)0xFF});
+		assertTrue(in.nextLine());
+		assertThrows(CharacterCodingException.class, in::getLine);
+	}
+	
+	private static boolean matchKey(String line){
+		StatsReader in = reader(line);
+		assertTrue(in.nextLine());
+		return in.matchKey();
+	}
+	
+	private static boolean matchTiming(String line){
+		StatsReader in = reader(line);
+		assertTrue(in.nextLine());
+		return in.matchTiming();
+	}
+	
+	private static void readHold(String line){
+		StatsReader in = reader(line);
+		assertTrue(in.nextLine());
+		assertTrue(in.matchTiming());
+		in.readHoldTimes(new LatencyHistogram());
+	}
+	
+	private static StatsReader reader(String data){
+		return new StatsReader(data.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static String repeat(char c, int n){
+		StringBuilder buffer = new StringBuilder(n);
+		for(int i = 0; i < n; i++){
+			buffer.append(c);
+		}
+		return buffer.toString();
+	}
+}
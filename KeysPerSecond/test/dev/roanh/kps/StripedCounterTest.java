@@ -0,0 +1,76 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+public class StripedCounterTest{
+
+	@Test
+	public void singleThreadTest(){
+		StripedCounter counter = new StripedCounter(5L);
+		assertEquals(5L, counter.get());
+		
+		counter.increment();
+		counter.add(Integer.MAX_VALUE);
+		assertEquals(6L + Integer.MAX_VALUE, counter.get());
+		
+		assertEquals(6L + Integer.MAX_VALUE, counter.drain());
+		assertEquals(0L, counter.get());
+		
+		counter.set(42L);
+		assertEquals(42L, counter.get());
+	}
+	
+	@Test
+	public void drainTest() throws InterruptedException{
+		StripedCounter counter = new StripedCounter();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] writers = new Thread[4];
+		for(int i = 0; i < writers.length; i++){
+			writers[i] = new Thread(()->{
+				try{
+					start.await();
+				}catch(InterruptedException e){
+					return;
+				}
+				
+				for(int j = 0; j < 500000; j++){
+					counter.increment();
+				}
+			});
+			writers[i].start();
+		}
+		
+		long drained = 0;
+		start.countDown();
+		for(Thread writer : writers){
+			while(writer.isAlive()){
+				drained += counter.drain();
+			}
+		}
+		
+		drained += counter.drain();
+		assertEquals(writers.length * 500000L, drained);
+	}
+}
@@ -43,13 +43,18 @@ import dev.roanh.kps.config.group.CommandSettings;
 import dev.roanh.kps.config.group.CurrentPanelSettings;
 import dev.roanh.kps.config.group.CursorGraphSettings;
 import dev.roanh.kps.config.group.GraphPanelSettings;
+import dev.roanh.kps.config.group.HeatmapGraphSettings;
+import dev.roanh.kps.config.group.HoldGraphSettings;
+import dev.roanh.kps.config.group.InputSettings;
 import dev.roanh.kps.config.group.LineGraphSettings;
 import dev.roanh.kps.config.group.KeyPanelSettings;
+import dev.roanh.kps.config.group.KeyTimingPanelSettings;
 import dev.roanh.kps.config.group.LastPanelSettings;
 import dev.roanh.kps.config.group.MaxPanelSettings;
 import dev.roanh.kps.config.group.PositionSettings;
 import dev.roanh.kps.config.group.SpecialPanelSettings;
 import dev.roanh.kps.config.group.StatsSavingSettings;
+import dev.roanh.kps.config.group.SuppressedPanelSettings;
 import dev.roanh.kps.config.group.ThemeSettings;
 import dev.roanh.kps.config.group.TotalPanelSettings;
 import dev.roanh.kps.config.setting.CommandKeySetting;
@@ -518,6 +523,7 @@ public class ConfigParserTest{
 		assertEquals(250, config.getUpdateRateMs());
 		assertTrue(config.isKeyModifierTrackingEnabled());
 		assertTrue(config.isWindowedMode());
+		assertTrue(config.isKeyTimingEnabled());
 		
 		//position
 		assertFalse(config.getFramePosition().hasPosition());
@@ -576,6 +582,14 @@ public class ConfigParserTest{
 		assertTrue(stats.isSaveOnExitEnabled());
 		assertTrue(stats.isLoadOnLaunchEnabled());
 		assertEquals("C:\\Users\\RoanH\\alsotest", stats.getSaveFile());
+		assertTrue(stats.isJournalEnabled());
+		assertEquals(250, stats.getJournalInterval());
+		
+		//input
+		InputSettings input = config.getInputSettings();
+		assertTrue(input.isAsyncDispatchEnabled());
+		assertFalse(input.isCoalesceMouseMovesEnabled());
+		assertEquals(12, input.getDebounceTime());
 		
 		//graphs
 		Iterator<GraphPanelSettings> graphs = config.getGraphs().iterator();
@@ -588,6 +602,7 @@ public class ConfigParserTest{
 		assertFalse(lineGraph.isAverageVisible());
 		assertEquals(45, lineGraph.getBacklog());
 		assertEquals(20, lineGraph.getMaxValue());
+		assertEquals(25, lineGraph.getHysteresis());
 		
 		CursorGraphSettings cursorGraph = assertInstanceOf(CursorGraphSettings.class, graphs.next());
 		assertEquals(5, cursorGraph.getLayoutX());
@@ -596,6 +611,25 @@ public class ConfigParserTest{
 		assertEquals(7, cursorGraph.getLayoutHeight());
 		assertEquals("\\Display1", cursorGraph.getDisplayId());
 		assertEquals(1234, cursorGraph.getBacklog());
+		assertEquals(5, cursorGraph.getThreshold());
+		
+		HeatmapGraphSettings heatmap = assertInstanceOf(HeatmapGraphSettings.class, graphs.next());
+		assertEquals(3, heatmap.getLayoutX());
+		assertEquals(9, heatmap.getLayoutY());
+		assertEquals(4, heatmap.getLayoutWidth());
+		assertEquals(5, heatmap.getLayoutHeight());
+		assertEquals("Heat", heatmap.getName());
+		assertEquals("\\Display2", heatmap.getDisplayId());
+		assertEquals(8, heatmap.getCellSize());
+		assertEquals(250, heatmap.getClickWeight());
+		
+		HoldGraphSettings hold = assertInstanceOf(HoldGraphSettings.class, graphs.next());
+		assertEquals(11, hold.getLayoutX());
+		assertEquals(2, hold.getLayoutY());
+		assertEquals(6, hold.getLayoutWidth());
+		assertEquals(4, hold.getLayoutHeight());
+		assertEquals("Holds", hold.getName());
+		assertEquals(90, hold.getPercentile());
 		
 		assertFalse(graphs.hasNext());
 		
@@ -645,6 +679,25 @@ public class ConfigParserTest{
 		assertEquals(2, lastSettings.getUnitCount());
 		assertTrue(lastSettings.showMillis());
 		
+		KeyTimingPanelSettings timingSettings = assertInstanceOf(KeyTimingPanelSettings.class, panels.next());
+		assertEquals(7, timingSettings.getLayoutX());
+		assertEquals(8, timingSettings.getLayoutY());
+		assertEquals(2, timingSettings.getLayoutWidth());
+		assertEquals(3, timingSettings.getLayoutHeight());
+		assertEquals(RenderingMode.VALUE_ONLY, timingSettings.getRenderingMode());
+		assertEquals("Hold", timingSettings.getName());
+		assertEquals(1048606, timingSettings.getKeyCode());
+		assertEquals(TimingMetric.HOLD, timingSettings.getMetric());
+		assertEquals(95, timingSettings.getPercentile());
+		
+		SuppressedPanelSettings suppressedSettings = assertInstanceOf(SuppressedPanelSettings.class, panels.next());
+		assertEquals(9, suppressedSettings.getLayoutX());
+		assertEquals(8, suppressedSettings.getLayoutY());
+		assertEquals(3, suppressedSettings.getLayoutWidth());
+		assertEquals(2, suppressedSettings.getLayoutHeight());
+		assertEquals(RenderingMode.HORIZONTAL_TN, suppressedSettings.getRenderingMode());
+		assertEquals("Chatter", suppressedSettings.getName());
+		
 		assertFalse(panels.hasNext());
 		
 		//keys
@@ -672,6 +725,27 @@ public class ConfigParserTest{
 		assertEquals("B", key2.getName());
 	}
 	
+	@Test
+	public void laterSettingsTest() throws IOException{
+		//a configuration written before settings were added to existing groups
+		ConfigParser parser = ConfigParser.parse(Paths.get("test/config89nodefault.kps"));
+		assertFalse(parser.wasDefaultUsed());
+		
+		Configuration config = parser.getConfig();
+		LineGraphSettings line = assertInstanceOf(LineGraphSettings.class, config.getGraphs().get(0));
+		assertEquals(20, line.getMaxValue());
+		assertEquals(0, line.getHysteresis());
+		
+		CursorGraphSettings cursor = assertInstanceOf(CursorGraphSettings.class, config.getGraphs().get(1));
+		assertEquals(1234, cursor.getBacklog());
+		assertEquals(1, cursor.getThreshold());
+		
+		StatsSavingSettings stats = config.getStatsSavingSettings();
+		assertEquals("C:\\Users\\RoanH\\alsotest", stats.getSaveFile());
+		assertFalse(stats.isJournalEnabled());
+		assertEquals(1000, stats.getJournalInterval());
+	}
+	
 	@Test
 	public void readWriteTest() throws IOException{
 		ConfigParser parser = ConfigParser.parse(Paths.get("test/latestnodefault.kps"));
@@ -0,0 +1,88 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class DebounceFilterTest{
+
+	@Test
+	public void disabledTest(){
+		DebounceFilter filter = new DebounceFilter();
+		for(int i = 0; i < 10; i++){
+			assertTrue(filter.press(30, i));
+			assertTrue(filter.release(30, i));
+		}
+		
+		assertEquals(0, filter.getSuppressedCount());
+	}
+	
+	@Test
+	public void chatterTest(){
+		DebounceFilter filter = new DebounceFilter();
+		filter.setWindow(5);
+		
+		assertTrue(filter.press(30, 0));
+		assertTrue(filter.release(30, 10));
+		
+		//bounces restart the window
+		assertFalse(filter.press(30, 12));
+		assertFalse(filter.release(30, 13));
+		assertFalse(filter.press(30, 17));
+		assertFalse(filter.release(30, 18));
+		assertEquals(2, filter.getSuppressedCount());
+		
+		assertTrue(filter.press(30, 30));
+		assertTrue(filter.release(30, 40));
+		
+		//other keys are not affected
+		assertTrue(filter.press(31, 41));
+		assertTrue(filter.release(31, 42));
+		assertEquals(2, filter.getSuppressedCount());
+	}
+	
+	@Test
+	public void repeatTest(){
+		DebounceFilter filter = new DebounceFilter();
+		filter.setWindow(5);
+		
+		assertTrue(filter.press(0xFFFF, 0));
+		assertTrue(filter.release(0xFFFF, 10));
+		assertFalse(filter.press(0xFFFF, 11));
+		
+		//a repeated press of the held key owns the final release
+		assertTrue(filter.press(0xFFFF, 500));
+		assertTrue(filter.release(0xFFFF, 600));
+	}
+	
+	@Test
+	public void rangeTest(){
+		DebounceFilter filter = new DebounceFilter();
+		filter.setWindow(5);
+		for(int code : new int[]{-1, 1 << 16, Integer.MAX_VALUE}){
+			assertTrue(filter.press(code, 0));
+			assertTrue(filter.release(code, 1));
+			assertTrue(filter.press(code, 2));
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class EventManagerTest{
+	
+	@Test
+	public void coalesceTest() throws InterruptedException{
+		EventManager manager = new EventManager();
+		List<double[]> paths = new ArrayList<double[]>();
+		List<double[]> samples = new ArrayList<double[]>();
+		List<int[]> moves = new ArrayList<int[]>();
+		manager.registerMousePathListener((x, y, count, length)->paths.add(new double[]{x, y, count, length}));
+		manager.registerMousePathListener((x, y, count, length)->samples.add(new double[]{x, y, count, length}), true);
+		manager.registerMouseMoveListener((x, y)->moves.add(new int[]{x, y}));
+		manager.setCoalesceMouseMoves(true);
+		
+		runBatch(manager, ()->{
+			manager.fireMouseMoveEvent(0, 0);
+			manager.fireMouseMoveEvent(3, 4);
+			manager.fireMouseMoveEvent(3, 10);
+			manager.fireMouseMoveEvent(3, 12);
+		});
+		
+		assertEquals(1, paths.size());
+		assertPath(paths.get(0), 3, 12, 4, 13.0D);
+		assertEquals(1, moves.size());
+		assertEquals(3, moves.get(0)[0]);
+		assertEquals(12, moves.get(0)[1]);
+		
+		assertEquals(4, samples.size());
+		assertPath(samples.get(0), 0, 0, 1, 0.0D);
+		assertPath(samples.get(1), 3, 4, 1, 5.0D);
+		assertPath(samples.get(2), 3, 10, 1, 6.0D);
+		assertPath(samples.get(3), 3, 12, 1, 2.0D);
+	}
+	
+	@Test
+	public void splitTest() throws InterruptedException{
+		EventManager manager = new EventManager();
+		List<double[]> paths = new ArrayList<double[]>();
+		List<Integer> order = new ArrayList<Integer>();
+		manager.registerMousePathListener((x, y, count, length)->{
+			paths.add(new double[]{x, y, count, length});
+			order.add(-count);
+		});
+		manager.registerButtonPressListener(order::add);
+		manager.setCoalesceMouseMoves(true);
+		
+		runBatch(manager, ()->{
+			manager.fireMouseMoveEvent(0, 0);
+			manager.fireMouseMoveEvent(0, 10);
+			manager.fireMouseMoveEvent(0, 20);
+			manager.fireButtonPressEvent(1);
+			manager.fireMouseMoveEvent(10, 20);
+			manager.fireMouseMoveEvent(10, 30);
+		});
+		
+		assertEquals(2, paths.size());
+		assertPath(paths.get(0), 0, 20, 3, 20.0D);
+		assertPath(paths.get(1), 10, 30, 2, 20.0D);
+		
+		//pending moves are dispatched before the button press
+		assertEquals(-3, order.get(0));
+		assertEquals(1, order.get(1));
+		assertEquals(-2, order.get(2));
+	}
+	
+	@Test
+	public void noCoalesceTest() throws InterruptedException{
+		EventManager manager = new EventManager();
+		List<double[]> paths = new ArrayList<double[]>();
+		manager.registerMousePathListener((x, y, count, length)->paths.add(new double[]{x, y, count, length}));
+		manager.setCoalesceMouseMoves(false);
+		
+		runBatch(manager, ()->{
+			manager.fireMouseMoveEvent(0, 0);
+			manager.fireMouseMoveEvent(6, 8);
+		});
+		
+		assertEquals(2, paths.size());
+		assertPath(paths.get(0), 0, 0, 1, 0.0D);
+		assertPath(paths.get(1), 6, 8, 1, 10.0D);
+	}
+	
+	@Test
+	public void overflowTest() throws InterruptedException{
+		EventManager manager = new EventManager();
+		List<double[]> paths = new ArrayList<double[]>();
+		List<double[]> samples = new ArrayList<double[]>();
+		manager.registerMousePathListener((x, y, count, length)->paths.add(new double[]{x, y, count, length}));
+		manager.registerMousePathListener((x, y, count, length)->samples.add(new double[]{x, y, count, length}), true);
+		manager.setCoalesceMouseMoves(false);
+		
+		int moves = 10000;
+		runBatch(manager, ()->{
+			for(int i = 0; i < moves; i++){
+				manager.fireMouseMoveEvent(i, 0);
+			}
+		});
+		
+		//moves that did not fit in the queue are folded instead of dropped
+		assertTrue(samples.size() < moves);
+		for(List<double[]> events : Arrays.asList(paths, samples)){
+			int count = 0;
+			double length = 0.0D;
+			for(double[] path : events){
+				count += (int)path[2];
+				length += path[3];
+			}
+			
+			assertEquals(moves, count);
+			assertEquals(moves - 1, length, 0.000001D);
+			assertEquals(moves - 1, (int)events.get(events.size() - 1)[0]);
+		}
+	}
+	
+	@Test
+	public void toggleAsyncTest() throws InterruptedException{
+		EventManager manager = new EventManager();
+		AtomicInteger presses = new AtomicInteger();
+		AtomicInteger releases = new AtomicInteger();
+		manager.registerKeyPressListener(code->presses.incrementAndGet());
+		manager.registerKeyReleaseListener(code->releases.incrementAndGet());
+		
+		int events = 200000;
+		Thread source = new Thread(()->{
+			for(int i = 0; i < events; i++){
+				manager.fireKeyPressEvent(i & 0xFF);
+				manager.fireKeyReleaseEvent(i & 0xFF);
+			}
+		});
+		
+		source.start();
+		boolean async = false;
+		while(source.isAlive()){
+			async = !async;
+			manager.setAsyncDispatch(async);
+		}
+		
+		source.join();
+		manager.setAsyncDispatch(false);
+		assertEquals(events, presses.get());
+		assertEquals(events, releases.get());
+	}
+	
+	private static void assertPath(double[] path, int x, int y, int count, double length){
+		assertEquals(x, (int)path[0]);
+		assertEquals(y, (int)path[1]);
+		assertEquals(count, (int)path[2]);
+		assertEquals(length, path[3], 0.000001D);
+	}
+	
+	//fires the given events while the dispatcher is blocked so they are drained in a single batch
+	private static void runBatch(EventManager manager, Runnable events) throws InterruptedException{
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		manager.registerKeyPressListener(code->{
+			try{
+				if(code == 1){
+					blocked.countDown();
+					release.await();
+				}else if(code == 2){
+					done.countDown();
+				}
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		});
+		
+		manager.setAsyncDispatch(true);
+		try{
+			manager.fireKeyPressEvent(1);
+			assertTrue(blocked.await(10, TimeUnit.SECONDS));
+			events.run();
+			release.countDown();
+			manager.fireKeyPressEvent(2);
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+		}finally{
+			manager.setAsyncDispatch(false);
+		}
+	}
+}
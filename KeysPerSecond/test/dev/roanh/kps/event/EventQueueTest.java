@@ -0,0 +1,80 @@
+/*
+ * KeysPerSecond: An open source input statistics displayer.
+ * Copyright (C) 2017  Roan Hofland (roan@roanh.dev).  All rights reserved.
+ * GitHub Repository: https://github.com/RoanH/KeysPerSecond
+ *
+ * KeysPerSecond is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * KeysPerSecond is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package dev.roanh.kps.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class EventQueueTest{
+
+	@Test
+	public void capacityTest(){
+		assertThrows(IllegalArgumentException.class, ()->new EventQueue(0));
+		assertThrows(IllegalArgumentException.class, ()->new EventQueue(6));
+		assertEquals(8, new EventQueue(8).getCapacity());
+	}
+	
+	@Test
+	public void fullTest(){
+		EventQueue queue = new EventQueue(4);
+		assertTrue(queue.isEmpty());
+		
+		for(int i = 0; i < 4; i++){
+			assertTrue(queue.publish(EventQueue.KEY_PRESS, i, 0, 0, i));
+		}
+		
+		assertEquals(4, queue.size());
+		assertFalse(queue.publish(EventQueue.KEY_PRESS, 4, 0, 0, 4));
+		
+		assertEquals(1, queue.drain((type, code, x, y, time)->assertEquals(0, code), 1));
+		assertTrue(queue.publish(EventQueue.KEY_RELEASE, 4, 0, 0, 4));
+		assertEquals(4, queue.size());
+	}
+	
+	@Test
+	public void orderTest(){
+		EventQueue queue = new EventQueue(4);
+		int[] next = new int[1];
+		
+		for(int i = 0; i < 10; i++){
+			assertTrue(queue.publish(EventQueue.MOUSE_MOVE, 0, i, -i, 100 + i));
+			assertTrue(queue.publish(EventQueue.BUTTON_PRESS, i, 0, 0, 200 + i));
+			
+			assertEquals(2, queue.drain((type, code, x, y, time)->{
+				if(type == EventQueue.MOUSE_MOVE){
+					assertEquals(next[0], x);
+					assertEquals(-next[0], y);
+					assertEquals(100 + next[0], time);
+				}else{
+					assertEquals(EventQueue.BUTTON_PRESS, type);
+					assertEquals(next[0], code);
+					assertEquals(200 + next[0], time);
+					next[0]++;
+				}
+			}, 16));
+		}
+		
+		assertEquals(10, next[0]);
+		assertTrue(queue.isEmpty());
+	}
+}